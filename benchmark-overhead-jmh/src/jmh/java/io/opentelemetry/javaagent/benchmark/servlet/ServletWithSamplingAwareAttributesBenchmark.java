@@ -0,0 +1,11 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.benchmark.servlet;
+
+import org.openjdk.jmh.annotations.Fork;
+
+@Fork(jvmArgsAppend = "-Dotel.instrumentation.experimental.sampling-aware-attributes.enabled=true")
+public class ServletWithSamplingAwareAttributesBenchmark extends ServletBenchmark {}
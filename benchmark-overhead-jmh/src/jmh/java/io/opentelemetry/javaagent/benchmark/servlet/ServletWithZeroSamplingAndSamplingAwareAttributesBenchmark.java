@@ -0,0 +1,16 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.benchmark.servlet;
+
+import org.openjdk.jmh.annotations.Fork;
+
+@Fork(
+    jvmArgsAppend = {
+      "-Dotel.traces.sampler=traceidratio",
+      "-Dotel.traces.sampler.arg=0",
+      "-Dotel.instrumentation.experimental.sampling-aware-attributes.enabled=true"
+    })
+public class ServletWithZeroSamplingAndSamplingAwareAttributesBenchmark extends ServletBenchmark {}
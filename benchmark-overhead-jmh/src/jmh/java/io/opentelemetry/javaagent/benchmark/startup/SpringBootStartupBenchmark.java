@@ -0,0 +1,77 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.benchmark.startup;
+
+import io.opentelemetry.javaagent.benchmark.servlet.app.HelloWorldApplication;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Measures the wall-clock time it takes to start a Spring Boot application. Classes are only
+ * loaded, and therefore only transformed, once per JVM, so every fork starts the application
+ * exactly once. Besides the startup time the number of loaded classes and the number of classes
+ * that the agent transformed, ran the candidate transformations for and skipped are reported.
+ */
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SpringBootStartupBenchmark {
+
+  @Benchmark
+  public void startup(ClassCounts counts) throws Exception {
+    ConfigurableApplicationContext context =
+        SpringApplication.run(
+            HelloWorldApplication.class, "--server.port=0", "--spring.main.banner-mode=off");
+    context.close();
+    counts.record();
+  }
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class ClassCounts {
+
+    public long loadedClasses;
+    public long transformedClasses;
+    public long candidateClasses;
+    public long skippedClasses;
+
+    void record() throws Exception {
+      loadedClasses = ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount();
+      Class<?> stats;
+      try {
+        // the agent adds this class to the bootstrap class loader
+        stats =
+            Class.forName("io.opentelemetry.javaagent.bootstrap.TransformationStats", true, null);
+      } catch (ClassNotFoundException e) {
+        // running without the agent
+        return;
+      }
+      transformedClasses = getCount(stats, "getTransformedClasses");
+      candidateClasses = getCount(stats, "getCandidateClasses");
+      skippedClasses = getCount(stats, "getSkippedClasses");
+    }
+
+    private static long getCount(Class<?> stats, String methodName) throws Exception {
+      Method method = stats.getMethod(methodName);
+      return (long) method.invoke(null);
+    }
+  }
+}
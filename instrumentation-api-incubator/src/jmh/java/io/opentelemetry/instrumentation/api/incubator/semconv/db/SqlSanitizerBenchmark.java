@@ -0,0 +1,73 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.incubator.semconv.db;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of a sanitizer cache miss, i.e. of sanitizing a statement from scratch, both
+ * when the sanitized statement is needed and when only the operation and the table are extracted.
+ */
+@Fork(3)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class SqlSanitizerBenchmark {
+
+  @Param({"oltpQuery", "largeInsert", "storedProcedureCall"})
+  public String statementType;
+
+  private String statement;
+
+  @Setup
+  public void setUp() {
+    switch (statementType) {
+      case "oltpQuery":
+        statement =
+            "SELECT o.id, o.status, o.total FROM orders o WHERE o.customer_id = 42 "
+                + "AND o.created_at > '2024-01-01' ORDER BY o.created_at DESC";
+        break;
+      case "largeInsert":
+        // roughly 10 KB, as generated by ORMs for batch inserts
+        StringBuilder insert =
+            new StringBuilder("INSERT INTO order_items (order_id, product_id, quantity, price) ");
+        insert.append("VALUES (1, 1001, 2, 19.99)");
+        for (int i = 2; insert.length() < 10 * 1024; i++) {
+          insert.append(", (").append(i).append(", ").append(1000 + i).append(", 1, 9.99)");
+        }
+        statement = insert.toString();
+        break;
+      case "storedProcedureCall":
+        statement = "CALL update_inventory(1001, 'warehouse-7', -2, 'order 42 shipped')";
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown statement type: " + statementType);
+    }
+  }
+
+  @Benchmark
+  public SqlStatementInfo sanitize() {
+    return AutoSqlSanitizer.sanitize(statement, SqlDialect.DEFAULT);
+  }
+
+  @Benchmark
+  public SqlStatementInfo summarize() {
+    return AutoSqlSanitizer.sanitize(statement, SqlDialect.DEFAULT, false);
+  }
+}
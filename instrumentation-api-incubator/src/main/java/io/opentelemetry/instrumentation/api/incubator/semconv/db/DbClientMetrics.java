@@ -17,10 +17,12 @@ import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
+import io.opentelemetry.instrumentation.api.internal.MetricAttributesInterner;
 import io.opentelemetry.instrumentation.api.internal.OperationMetricsUtil;
 import io.opentelemetry.instrumentation.api.internal.SemconvStability;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * {@link OperationListener} which keeps track of <a
@@ -52,6 +54,7 @@ public final class DbClientMetrics implements OperationListener {
   }
 
   private final DoubleHistogram duration;
+  @Nullable private final MetricAttributesInterner attributesInterner;
 
   private DbClientMetrics(Meter meter) {
     DoubleHistogramBuilder stableDurationBuilder =
@@ -62,6 +65,9 @@ public final class DbClientMetrics implements OperationListener {
             .setExplicitBucketBoundariesAdvice(DbClientMetricsAdvice.DURATION_SECONDS_BUCKETS);
     DbClientMetricsAdvice.applyClientDurationAdvice(stableDurationBuilder);
     duration = stableDurationBuilder.build();
+    attributesInterner =
+        MetricAttributesInterner.create(
+            stableDurationBuilder, DbClientMetricsAdvice.CLIENT_DURATION_ATTRIBUTES);
   }
 
   @Override
@@ -82,7 +88,9 @@ public final class DbClientMetrics implements OperationListener {
       return;
     }
 
-    Attributes attributes = state.startAttributes().toBuilder().putAll(endAttributes).build();
+    Attributes attributes =
+        MetricAttributesInterner.merge(
+            attributesInterner, state.startAttributes(), endAttributes);
 
     duration.record((endNanos - state.startTimeNanos()) / NANOS_PER_S, attributes, context);
   }
@@ -94,7 +94,12 @@ public abstract class DbClientSpanNameExtractor<REQUEST> implements SpanNameExtr
     @Override
     public String extract(REQUEST request) {
       String namespace = getter.getDbNamespace(request);
-      SqlStatementInfo sanitizedStatement = sanitizer.sanitize(getter.getRawQueryText(request));
+      String rawQueryText = getter.getRawQueryText(request);
+      SqlStatementInfoHolder holder = getter.getSanitizedQueryHolder(request);
+      SqlStatementInfo sanitizedStatement =
+          holder != null
+              ? holder.summarize(sanitizer, rawQueryText)
+              : sanitizer.summarize(rawQueryText);
       return computeSpanName(
           namespace, sanitizedStatement.getOperation(), sanitizedStatement.getMainIdentifier());
     }
@@ -72,7 +72,20 @@ public final class SqlClientAttributesExtractor<REQUEST, RESPONSE>
     super.onStart(attributes, parentContext, request);
 
     String rawQueryText = getter.getRawQueryText(request);
-    SqlStatementInfo sanitizedStatement = sanitizer.sanitize(rawQueryText);
+    SqlStatementInfoHolder holder = getter.getSanitizedQueryHolder(request);
+    // the sanitized statement is only needed when it's going to be recorded
+    SqlStatementInfo sanitizedStatement;
+    if (holder != null) {
+      sanitizedStatement =
+          statementSanitizationEnabled
+              ? holder.sanitize(sanitizer, rawQueryText)
+              : holder.summarize(sanitizer, rawQueryText);
+    } else {
+      sanitizedStatement =
+          statementSanitizationEnabled
+              ? sanitizer.sanitize(rawQueryText)
+              : sanitizer.summarize(rawQueryText);
+    }
     String operation = sanitizedStatement.getOperation();
     if (SemconvStability.emitStableDatabaseSemconv()) {
       internalSet(
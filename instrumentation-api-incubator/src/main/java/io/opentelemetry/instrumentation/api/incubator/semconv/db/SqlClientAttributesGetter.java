@@ -38,4 +38,16 @@ public interface SqlClientAttributesGetter<REQUEST>
   default String getRawQueryText(REQUEST request) {
     return getRawStatement(request);
   }
+
+  /**
+   * Get the holder that keeps the sanitized form of the {@linkplain #getRawQueryText(Object) raw
+   * SQL statement} across executions, e.g. of a prepared statement that is executed many times.
+   * The statement is then only sanitized on its first traced execution. If {@code null} is returned
+   * the raw SQL statement is sanitized by the {@link SqlClientAttributesExtractor} on every
+   * execution.
+   */
+  @Nullable
+  default SqlStatementInfoHolder getSanitizedQueryHolder(REQUEST request) {
+    return null;
+  }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.incubator.semconv.db;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps the sanitized form of a SQL statement that is executed many times, e.g. of a prepared
+ * statement, see {@link SqlClientAttributesGetter#getSanitizedQueryHolder(Object)}. The statement
+ * is sanitized by the extractors on its first traced execution, with their own settings, and the
+ * result is reused for the following executions.
+ *
+ * <p>A holder must only ever be used for a single statement.
+ */
+public final class SqlStatementInfoHolder {
+
+  public static SqlStatementInfoHolder create() {
+    return new SqlStatementInfoHolder();
+  }
+
+  // SqlStatementInfo is immutable, so these can be set and read without synchronization; at worst
+  // a statement that is executed concurrently for the first time is sanitized more than once
+  @Nullable private SqlStatementInfo sanitized;
+  @Nullable private SqlStatementInfo summarized;
+
+  private SqlStatementInfoHolder() {}
+
+  SqlStatementInfo sanitize(SqlStatementSanitizer sanitizer, @Nullable String statement) {
+    SqlStatementInfo info = sanitized;
+    if (info == null) {
+      info = sanitizer.sanitize(statement);
+      sanitized = info;
+      // summarize() is served from the sanitized statement from now on
+      summarized = null;
+    }
+    return info;
+  }
+
+  SqlStatementInfo summarize(SqlStatementSanitizer sanitizer, @Nullable String statement) {
+    SqlStatementInfo info = sanitized;
+    if (info != null) {
+      return info;
+    }
+    info = summarized;
+    if (info == null) {
+      info = sanitizer.summarize(statement);
+      summarized = info;
+    }
+    return info;
+  }
+}
@@ -8,6 +8,7 @@ package io.opentelemetry.instrumentation.api.incubator.semconv.db;
 import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.SQL_STATEMENT_SANITIZER_CACHE_MISS;
 
 import com.google.auto.value.AutoValue;
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
 import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import javax.annotation.Nullable;
@@ -19,8 +20,14 @@ import javax.annotation.Nullable;
 public final class SqlStatementSanitizer {
   private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
 
+  // the cache is bounded by the total length of the cached statements, so that a few very long
+  // statements can't take up a lot of memory while many short statements can still be cached
+  private static final int CACHE_MAX_WEIGHT =
+      ConfigPropertiesUtil.getInt(
+          "otel.instrumentation.experimental.db-statement-sanitizer.cache-max-bytes", 1024 * 1024);
+
   private static final Cache<CacheKey, SqlStatementInfo> sqlToStatementInfoCache =
-      Cache.bounded(1000);
+      Cache.bounded("sql-statement-sanitizer", CACHE_MAX_WEIGHT, SqlStatementSanitizer::weigh);
 
   public static SqlStatementSanitizer create(boolean statementSanitizationEnabled) {
     return new SqlStatementSanitizer(statementSanitizationEnabled);
@@ -40,23 +47,69 @@ public final class SqlStatementSanitizer {
     if (!statementSanitizationEnabled || statement == null) {
       return SqlStatementInfo.create(statement, null, null);
     }
+    CacheKey key = CacheKey.create(statement, dialect, false);
+    SqlStatementInfo sanitized = sqlToStatementInfoCache.get(key);
+    if (sanitized == null) {
+      supportability.incrementCounter(SQL_STATEMENT_SANITIZER_CACHE_MISS);
+      sanitized = AutoSqlSanitizer.sanitize(statement, dialect);
+      sqlToStatementInfoCache.put(key, sanitized);
+      // summarize() is served from the full entry from now on, so that the statement is only
+      // cached once
+      sqlToStatementInfoCache.remove(CacheKey.create(statement, dialect, true));
+    }
+    return sanitized;
+  }
+
+  /**
+   * Extracts the operation and the main identifier of the statement. Unlike {@link
+   * #sanitize(String)}, this method does not need to build the sanitized statement, which makes it
+   * considerably cheaper for long statements; {@link SqlStatementInfo#getFullStatement()} of the
+   * returned value may be {@code null}.
+   */
+  public SqlStatementInfo summarize(@Nullable String statement) {
+    return summarize(statement, SqlDialect.DEFAULT);
+  }
+
+  /**
+   * Extracts the operation and the main identifier of the statement, see {@link
+   * #summarize(String)}.
+   */
+  public SqlStatementInfo summarize(@Nullable String statement, SqlDialect dialect) {
+    if (!statementSanitizationEnabled || statement == null) {
+      return SqlStatementInfo.create(null, null, null);
+    }
+    // reuse the fully sanitized statement if it's already cached
+    SqlStatementInfo sanitized =
+        sqlToStatementInfoCache.get(CacheKey.create(statement, dialect, false));
+    if (sanitized != null) {
+      return sanitized;
+    }
     return sqlToStatementInfoCache.computeIfAbsent(
-        CacheKey.create(statement, dialect),
-        k -> {
-          supportability.incrementCounter(SQL_STATEMENT_SANITIZER_CACHE_MISS);
-          return AutoSqlSanitizer.sanitize(statement, dialect);
-        });
+        CacheKey.create(statement, dialect, true),
+        k -> AutoSqlSanitizer.sanitize(statement, dialect, false));
+  }
+
+  // approximates the retained size in bytes, most statements only contain latin-1 characters
+  private static int weigh(CacheKey key, SqlStatementInfo value) {
+    String fullStatement = value.getFullStatement();
+    int weight = key.getStatement().length();
+    if (fullStatement != null) {
+      weight += fullStatement.length();
+    }
+    return Math.max(1, weight);
   }
 
   @AutoValue
   abstract static class CacheKey {
 
-    static CacheKey create(String statement, SqlDialect dialect) {
-      return new AutoValue_SqlStatementSanitizer_CacheKey(statement, dialect);
+    static CacheKey create(String statement, SqlDialect dialect, boolean summaryOnly) {
+      return new AutoValue_SqlStatementSanitizer_CacheKey(statement, dialect, summaryOnly);
     }
 
     abstract String getStatement();
 
     abstract SqlDialect getDialect();
+
+    abstract boolean isSummaryOnly();
   }
 }
@@ -5,12 +5,15 @@
 
 package io.opentelemetry.instrumentation.api.incubator.semconv.rpc;
 
+import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableList;
+
 import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.incubator.metrics.ExtendedDoubleHistogramBuilder;
 import io.opentelemetry.api.metrics.DoubleHistogramBuilder;
 import io.opentelemetry.semconv.NetworkAttributes;
 import io.opentelemetry.semconv.ServerAttributes;
-import java.util.Arrays;
+import java.util.List;
 
 final class RpcMetricsAdvice {
 
@@ -18,42 +21,44 @@ final class RpcMetricsAdvice {
   private static final AttributeKey<Long> RPC_GRPC_STATUS_CODE =
       AttributeKey.longKey("rpc.grpc.status_code");
 
+  // the list of recommended metrics attributes is from
+  // https://github.com/open-telemetry/semantic-conventions/blob/main/docs/rpc/rpc-metrics.md
+  static final List<AttributeKey<?>> CLIENT_DURATION_ATTRIBUTES =
+      unmodifiableList(
+          asList(
+              RpcCommonAttributesExtractor.RPC_SYSTEM,
+              RpcCommonAttributesExtractor.RPC_SERVICE,
+              RpcCommonAttributesExtractor.RPC_METHOD,
+              RPC_GRPC_STATUS_CODE,
+              NetworkAttributes.NETWORK_TYPE,
+              NetworkAttributes.NETWORK_TRANSPORT,
+              ServerAttributes.SERVER_ADDRESS,
+              ServerAttributes.SERVER_PORT));
+
+  static final List<AttributeKey<?>> SERVER_DURATION_ATTRIBUTES =
+      unmodifiableList(
+          asList(
+              RpcCommonAttributesExtractor.RPC_SYSTEM,
+              RpcCommonAttributesExtractor.RPC_SERVICE,
+              RpcCommonAttributesExtractor.RPC_METHOD,
+              RPC_GRPC_STATUS_CODE,
+              NetworkAttributes.NETWORK_TYPE,
+              NetworkAttributes.NETWORK_TRANSPORT,
+              ServerAttributes.SERVER_ADDRESS,
+              ServerAttributes.SERVER_PORT));
+
   static void applyClientDurationAdvice(DoubleHistogramBuilder builder) {
     if (!(builder instanceof ExtendedDoubleHistogramBuilder)) {
       return;
     }
-    // the list of recommended metrics attributes is from
-    // https://github.com/open-telemetry/semantic-conventions/blob/main/docs/rpc/rpc-metrics.md
-    ((ExtendedDoubleHistogramBuilder) builder)
-        .setAttributesAdvice(
-            Arrays.asList(
-                RpcCommonAttributesExtractor.RPC_SYSTEM,
-                RpcCommonAttributesExtractor.RPC_SERVICE,
-                RpcCommonAttributesExtractor.RPC_METHOD,
-                RPC_GRPC_STATUS_CODE,
-                NetworkAttributes.NETWORK_TYPE,
-                NetworkAttributes.NETWORK_TRANSPORT,
-                ServerAttributes.SERVER_ADDRESS,
-                ServerAttributes.SERVER_PORT));
+    ((ExtendedDoubleHistogramBuilder) builder).setAttributesAdvice(CLIENT_DURATION_ATTRIBUTES);
   }
 
   static void applyServerDurationAdvice(DoubleHistogramBuilder builder) {
     if (!(builder instanceof ExtendedDoubleHistogramBuilder)) {
       return;
     }
-    // the list of recommended metrics attributes is from
-    // https://github.com/open-telemetry/semantic-conventions/blob/main/docs/rpc/rpc-metrics.md
-    ((ExtendedDoubleHistogramBuilder) builder)
-        .setAttributesAdvice(
-            Arrays.asList(
-                RpcCommonAttributesExtractor.RPC_SYSTEM,
-                RpcCommonAttributesExtractor.RPC_SERVICE,
-                RpcCommonAttributesExtractor.RPC_METHOD,
-                RPC_GRPC_STATUS_CODE,
-                NetworkAttributes.NETWORK_TYPE,
-                NetworkAttributes.NETWORK_TRANSPORT,
-                ServerAttributes.SERVER_ADDRESS,
-                ServerAttributes.SERVER_PORT));
+    ((ExtendedDoubleHistogramBuilder) builder).setAttributesAdvice(SERVER_DURATION_ATTRIBUTES);
   }
 
   private RpcMetricsAdvice() {}
@@ -16,9 +16,11 @@ import io.opentelemetry.context.Context;
 import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
+import io.opentelemetry.instrumentation.api.internal.MetricAttributesInterner;
 import io.opentelemetry.instrumentation.api.internal.OperationMetricsUtil;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * {@link OperationListener} which keeps track of <a
@@ -35,6 +37,7 @@ public final class RpcServerMetrics implements OperationListener {
   private static final Logger logger = Logger.getLogger(RpcServerMetrics.class.getName());
 
   private final DoubleHistogram serverDurationHistogram;
+  @Nullable private final MetricAttributesInterner attributesInterner;
 
   private RpcServerMetrics(Meter meter) {
     DoubleHistogramBuilder durationBuilder =
@@ -44,6 +47,9 @@ public final class RpcServerMetrics implements OperationListener {
             .setUnit("ms");
     RpcMetricsAdvice.applyServerDurationAdvice(durationBuilder);
     serverDurationHistogram = durationBuilder.build();
+    attributesInterner =
+        MetricAttributesInterner.create(
+            durationBuilder, RpcMetricsAdvice.SERVER_DURATION_ATTRIBUTES);
   }
 
   /**
@@ -74,7 +80,7 @@ public final class RpcServerMetrics implements OperationListener {
     }
     serverDurationHistogram.record(
         (endNanos - state.startTimeNanos()) / NANOS_PER_MS,
-        state.startAttributes().toBuilder().putAll(endAttributes).build(),
+        MetricAttributesInterner.merge(attributesInterner, state.startAttributes(), endAttributes),
         context);
   }
 
@@ -23,7 +23,7 @@ import org.junit.jupiter.api.Test;
 @SuppressWarnings("deprecation") // using deprecated semconv
 class SqlClientAttributesExtractorTest {
 
-  static final class TestAttributesGetter
+  static class TestAttributesGetter
       implements SqlClientAttributesGetter<Map<String, String>> {
 
     @Override
@@ -194,6 +194,57 @@ class SqlClientAttributesExtractorTest {
     }
   }
 
+  @Test
+  void shouldReuseSanitizedQueryFromHolder() {
+    // given
+    Map<String, String> request = new HashMap<>();
+    request.put("db.statement", "SELECT * FROM potato WHERE id=12345");
+
+    Context context = Context.root();
+
+    SqlStatementInfoHolder holder = SqlStatementInfoHolder.create();
+    AttributesExtractor<Map<String, String>, Void> underTest =
+        SqlClientAttributesExtractor.create(
+            new TestAttributesGetter() {
+              @Override
+              public SqlStatementInfoHolder getSanitizedQueryHolder(Map<String, String> map) {
+                return holder;
+              }
+            });
+
+    // when
+    underTest.onStart(Attributes.builder(), context, request);
+    // the holder belongs to a single statement, so the sanitized statement of the first execution
+    // is reused
+    request.put("db.statement", "SELECT * FROM tomato WHERE id=12345");
+    AttributesBuilder attributes = Attributes.builder();
+    underTest.onStart(attributes, context, request);
+
+    // then
+    if (SemconvStability.emitStableDatabaseSemconv() && SemconvStability.emitOldDatabaseSemconv()) {
+      assertThat(attributes.build())
+          .containsOnly(
+              entry(DbIncubatingAttributes.DB_STATEMENT, "SELECT * FROM potato WHERE id=?"),
+              entry(DbIncubatingAttributes.DB_OPERATION, "SELECT"),
+              entry(DbIncubatingAttributes.DB_SQL_TABLE, "potato"),
+              entry(stringKey("db.query.text"), "SELECT * FROM potato WHERE id=?"),
+              entry(stringKey("db.operation.name"), "SELECT"),
+              entry(stringKey("db.collection.name"), "potato"));
+    } else if (SemconvStability.emitOldDatabaseSemconv()) {
+      assertThat(attributes.build())
+          .containsOnly(
+              entry(DbIncubatingAttributes.DB_STATEMENT, "SELECT * FROM potato WHERE id=?"),
+              entry(DbIncubatingAttributes.DB_OPERATION, "SELECT"),
+              entry(DbIncubatingAttributes.DB_SQL_TABLE, "potato"));
+    } else if (SemconvStability.emitStableDatabaseSemconv()) {
+      assertThat(attributes.build())
+          .containsOnly(
+              entry(stringKey("db.query.text"), "SELECT * FROM potato WHERE id=?"),
+              entry(stringKey("db.operation.name"), "SELECT"),
+              entry(stringKey("db.collection.name"), "potato"));
+    }
+  }
+
   @Test
   void shouldExtractNoAttributesIfNoneAreAvailable() {
     // when
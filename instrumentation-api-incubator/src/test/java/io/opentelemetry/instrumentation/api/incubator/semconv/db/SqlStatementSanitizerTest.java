@@ -44,6 +44,40 @@ public class SqlStatementSanitizerTest {
     assertThat(result.getMainIdentifier()).isEqualToIgnoringCase(expected.getMainIdentifier());
   }
 
+  @ParameterizedTest
+  @ArgumentsSource(SimplifyArgs.class)
+  void summarizeSql(String original, Function<String, SqlStatementInfo> expectedFunction) {
+    SqlStatementInfo result = SqlStatementSanitizer.create(true).summarize(original);
+    SqlStatementInfo expected = expectedFunction.apply(original);
+    assertThat(result.getOperation()).isEqualTo(expected.getOperation());
+    assertThat(result.getMainIdentifier()).isEqualToIgnoringCase(expected.getMainIdentifier());
+  }
+
+  @ParameterizedTest
+  @ArgumentsSource(DdlArgs.class)
+  void summarizeDdlStatements(String original, Function<String, SqlStatementInfo> expectFunc) {
+    SqlStatementInfo expected = expectFunc.apply(original);
+    SqlStatementInfo result = AutoSqlSanitizer.sanitize(original, SqlDialect.DEFAULT, false);
+    assertThat(result.getFullStatement()).isNull();
+    assertThat(result.getOperation()).isEqualTo(expected.getOperation());
+    assertThat(result.getMainIdentifier()).isEqualTo(expected.getMainIdentifier());
+  }
+
+  @Test
+  void summarizeReusesSanitizedStatement() {
+    SqlStatementSanitizer sanitizer = SqlStatementSanitizer.create(true);
+    String statement = "SELECT name FROM summarized_table WHERE id = 42";
+
+    SqlStatementInfo summary = sanitizer.summarize(statement);
+    assertThat(summary.getFullStatement()).isNull();
+    assertThat(sanitizer.summarize(statement)).isSameAs(summary);
+
+    SqlStatementInfo sanitized = sanitizer.sanitize(statement);
+    assertThat(sanitized.getFullStatement())
+        .isEqualTo("SELECT name FROM summarized_table WHERE id = ?");
+    assertThat(sanitizer.summarize(statement)).isSameAs(sanitized);
+  }
+
   @Test
   void veryLongSelectStatementsAreOk() {
     StringBuilder sb = new StringBuilder("SELECT * FROM table WHERE");
@@ -0,0 +1,126 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.cache;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the bounded cache implementations on a Zipfian key stream, which is a reasonable model
+ * of e.g. the SQL statements executed by an application: a few statements are executed very often
+ * and there is a long tail of rarely executed ones. Each operation looks up a key and populates the
+ * cache on a miss; the hit rate is reported through the {@code hits} and {@code misses} counters.
+ */
+@Fork(3)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BoundedCacheBenchmark {
+
+  private static final int CAPACITY = 1000;
+  private static final int DISTINCT_KEYS = 100_000;
+  private static final int STREAM_SIZE = 1 << 20;
+  private static final int STREAM_MASK = STREAM_SIZE - 1;
+
+  @State(Scope.Benchmark)
+  public static class CacheState {
+
+    @Param({"concurrentLinkedHashMap", "tinyLfu"})
+    public String implementation;
+
+    Cache<String, String> cache;
+    String[] stream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      cache =
+          implementation.equals("tinyLfu")
+              ? Cache.boundedTinyLfu(CAPACITY)
+              : Cache.bounded(CAPACITY);
+      stream = zipfianStream(0.99, new Random(42));
+    }
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  public static class HitRate {
+
+    public long hits;
+    public long misses;
+    int position;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      hits = 0;
+      misses = 0;
+      // spread the threads over the stream so that they don't all request the same keys in lockstep
+      position = (int) (Thread.currentThread().getId() * 7919) & STREAM_MASK;
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public String threads01(CacheState state, HitRate hitRate) {
+    return getOrPut(state, hitRate);
+  }
+
+  @Benchmark
+  @Threads(8)
+  public String threads08(CacheState state, HitRate hitRate) {
+    return getOrPut(state, hitRate);
+  }
+
+  @Benchmark
+  @Threads(32)
+  public String threads32(CacheState state, HitRate hitRate) {
+    return getOrPut(state, hitRate);
+  }
+
+  private static String getOrPut(CacheState state, HitRate hitRate) {
+    String key = state.stream[hitRate.position++ & STREAM_MASK];
+    String value = state.cache.get(key);
+    if (value != null) {
+      hitRate.hits++;
+      return value;
+    }
+    hitRate.misses++;
+    state.cache.put(key, key);
+    return key;
+  }
+
+  private static String[] zipfianStream(double skew, Random random) {
+    double[] cumulative = new double[DISTINCT_KEYS];
+    double sum = 0;
+    for (int i = 0; i < DISTINCT_KEYS; i++) {
+      sum += 1 / Math.pow(i + 1, skew);
+      cumulative[i] = sum;
+    }
+    String[] keys = new String[DISTINCT_KEYS];
+    for (int i = 0; i < DISTINCT_KEYS; i++) {
+      keys[i] = "SELECT * FROM table" + i + " WHERE id = ?";
+    }
+    String[] stream = new String[STREAM_SIZE];
+    for (int i = 0; i < STREAM_SIZE; i++) {
+      int index = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+      stream[i] = keys[index < 0 ? Math.min(-index - 1, DISTINCT_KEYS - 1) : index];
+    }
+    return stream;
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.TextMapGetter;
+import io.opentelemetry.instrumentation.api.semconv.http.HttpServerAttributesExtractor;
+import io.opentelemetry.instrumentation.api.semconv.http.HttpServerAttributesGetter;
+import io.opentelemetry.instrumentation.api.semconv.http.HttpServerMetrics;
+import io.opentelemetry.instrumentation.api.semconv.http.HttpSpanNameExtractor;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the allocations of a start/end pair of an HTTP server {@link Instrumenter}. The {@code
+ * gc} profiler is enabled by the jmh conventions, compare {@code gc.alloc.rate.norm} with {@link
+ * InstrumenterAllocationWithObjectPoolingBenchmark}.
+ */
+@Fork(3)
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class InstrumenterAllocationBenchmark {
+
+  private Instrumenter<Void, Void> instrumenter;
+  private Instrumenter<Void, Void> instrumenterWithoutMetrics;
+
+  @Setup
+  public void setup() {
+    // instrumenters are created in @Setup so that the system properties passed by the forks are
+    // already visible
+    instrumenter =
+        Instrumenter.<Void, Void>builder(
+                OpenTelemetry.noop(),
+                "benchmark",
+                HttpSpanNameExtractor.create(ConstantHttpServerAttributesGetter.INSTANCE))
+            .addAttributesExtractor(
+                HttpServerAttributesExtractor.create(ConstantHttpServerAttributesGetter.INSTANCE))
+            .addOperationMetrics(HttpServerMetrics.get())
+            .buildServerInstrumenter(EmptyGetter.INSTANCE);
+    instrumenterWithoutMetrics =
+        Instrumenter.<Void, Void>builder(
+                OpenTelemetry.noop(),
+                "benchmark",
+                HttpSpanNameExtractor.create(ConstantHttpServerAttributesGetter.INSTANCE))
+            .addAttributesExtractor(
+                HttpServerAttributesExtractor.create(ConstantHttpServerAttributesGetter.INSTANCE))
+            .buildServerInstrumenter(EmptyGetter.INSTANCE);
+  }
+
+  @Benchmark
+  public Context startEnd() {
+    Context context = instrumenter.start(Context.root(), null);
+    instrumenter.end(context, null, null, null);
+    return context;
+  }
+
+  @Benchmark
+  public Context startEndWithoutMetrics() {
+    Context context = instrumenterWithoutMetrics.start(Context.root(), null);
+    instrumenterWithoutMetrics.end(context, null, null, null);
+    return context;
+  }
+
+  enum EmptyGetter implements TextMapGetter<Void> {
+    INSTANCE;
+
+    @Override
+    public Iterable<String> keys(Void unused) {
+      return Collections.emptyList();
+    }
+
+    @Nullable
+    @Override
+    public String get(@Nullable Void unused, String key) {
+      return null;
+    }
+  }
+
+  enum ConstantHttpServerAttributesGetter implements HttpServerAttributesGetter<Void, Void> {
+    INSTANCE;
+
+    @Override
+    public String getHttpRequestMethod(Void unused) {
+      return "GET";
+    }
+
+    @Override
+    public String getUrlScheme(Void unused) {
+      return "https";
+    }
+
+    @Override
+    public String getUrlPath(Void unused) {
+      return "/benchmark";
+    }
+
+    @Nullable
+    @Override
+    public String getUrlQuery(Void unused) {
+      return null;
+    }
+
+    @Override
+    public String getHttpRoute(Void unused) {
+      return "/benchmark";
+    }
+
+    @Override
+    public List<String> getHttpRequestHeader(Void unused, String name) {
+      if (name.equalsIgnoreCase("user-agent")) {
+        return Collections.singletonList("OpenTelemetryBot");
+      }
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Integer getHttpResponseStatusCode(Void unused, Void unused2, @Nullable Throwable error) {
+      return 200;
+    }
+
+    @Override
+    public List<String> getHttpResponseHeader(Void unused, Void unused2, String name) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public String getNetworkProtocolName(Void unused, @Nullable Void unused2) {
+      return "http";
+    }
+
+    @Override
+    public String getNetworkProtocolVersion(Void unused, @Nullable Void unused2) {
+      return "1.1";
+    }
+  }
+}
@@ -0,0 +1,14 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import org.openjdk.jmh.annotations.Fork;
+
+@Fork(
+    value = 3,
+    jvmArgsAppend = "-Dotel.instrumentation.experimental.instrumenter-object-pooling.enabled=true")
+public class InstrumenterAllocationWithObjectPoolingBenchmark
+    extends InstrumenterAllocationBenchmark {}
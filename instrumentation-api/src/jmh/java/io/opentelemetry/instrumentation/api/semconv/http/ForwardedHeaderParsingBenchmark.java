@@ -0,0 +1,119 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.semconv.http;
+
+import io.opentelemetry.instrumentation.api.semconv.network.internal.AddressAndPort;
+import io.opentelemetry.instrumentation.api.semconv.network.internal.AddressAndPortExtractor;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the extraction of the client and server address and port of a request that went
+ * through proxies, using either the {@code Forwarded} or the {@code X-Forwarded-*} headers.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class ForwardedHeaderParsingBenchmark {
+
+  private static final AddressAndPortExtractor<String> clientExtractor =
+      new HttpServerAddressAndPortExtractor<>(ProxiedGetter.INSTANCE);
+  private static final AddressAndPortExtractor<String> serverExtractor =
+      new ForwardedHostAddressAndPortExtractor<>(ProxiedGetter.INSTANCE);
+
+  @Param({"forwarded", "x-forwarded"})
+  String headers;
+
+  @Benchmark
+  public AddressAndPort client() {
+    AddressAndPort sink = new AddressAndPort();
+    clientExtractor.extract(sink, headers);
+    return sink;
+  }
+
+  @Benchmark
+  public AddressAndPort server() {
+    AddressAndPort sink = new AddressAndPort();
+    serverExtractor.extract(sink, headers);
+    return sink;
+  }
+
+  enum ProxiedGetter implements HttpServerAttributesGetter<String, Void> {
+    INSTANCE;
+
+    private static final List<String> FORWARDED =
+        Collections.singletonList(
+            "For=\"[2001:db8:cafe::17]:4711\";Proto=https;Host=\"shop.example.com:8443\","
+                + " for=198.51.100.17;proto=https");
+    private static final List<String> X_FORWARDED_FOR =
+        Collections.singletonList("203.0.113.195, 198.51.100.17, 192.0.2.43");
+    private static final List<String> X_FORWARDED_HOST =
+        Collections.singletonList("shop.example.com:8443");
+
+    @Override
+    public List<String> getHttpRequestHeader(String headers, String name) {
+      if (headers.equals("forwarded")) {
+        return name.equals("forwarded") ? FORWARDED : Collections.emptyList();
+      }
+      switch (name) {
+        case "x-forwarded-for":
+          return X_FORWARDED_FOR;
+        case "x-forwarded-host":
+          return X_FORWARDED_HOST;
+        default:
+          return Collections.emptyList();
+      }
+    }
+
+    @Override
+    public String getHttpRequestMethod(String headers) {
+      return "GET";
+    }
+
+    @Override
+    public String getUrlScheme(String headers) {
+      return "https";
+    }
+
+    @Override
+    public String getUrlPath(String headers) {
+      return "/";
+    }
+
+    @Nullable
+    @Override
+    public String getUrlQuery(String headers) {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public Integer getHttpResponseStatusCode(
+        String headers, Void response, @Nullable Throwable error) {
+      return null;
+    }
+
+    @Override
+    public List<String> getHttpResponseHeader(String headers, Void response, String name) {
+      return Collections.emptyList();
+    }
+  }
+}
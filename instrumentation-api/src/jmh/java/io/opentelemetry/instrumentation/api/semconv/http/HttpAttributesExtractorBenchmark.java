@@ -0,0 +1,113 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.semconv.http;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the extraction of the HTTP server attributes of a request whose getter returns values
+ * the way servlet containers do, e.g. an uppercase protocol name. The {@code gc} profiler is
+ * enabled by the jmh conventions, {@code gc.alloc.rate.norm} shows the allocations of the
+ * extractor in addition to the attributes builder.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class HttpAttributesExtractorBenchmark {
+
+  private static final AttributesExtractor<String, Integer> extractor =
+      HttpServerAttributesExtractor.create(ServletLikeGetter.INSTANCE);
+
+  @Benchmark
+  public Attributes ok() {
+    return extract(200);
+  }
+
+  @Benchmark
+  public Attributes serverError() {
+    return extract(503);
+  }
+
+  private static Attributes extract(int statusCode) {
+    AttributesBuilder attributes = Attributes.builder();
+    extractor.onStart(attributes, Context.root(), "GET");
+    extractor.onEnd(attributes, Context.root(), "GET", statusCode, null);
+    return attributes.build();
+  }
+
+  enum ServletLikeGetter implements HttpServerAttributesGetter<String, Integer> {
+    INSTANCE;
+
+    @Override
+    public String getHttpRequestMethod(String method) {
+      return method;
+    }
+
+    @Override
+    public String getUrlScheme(String method) {
+      return "http";
+    }
+
+    @Override
+    public String getUrlPath(String method) {
+      return "/owners/1";
+    }
+
+    @Nullable
+    @Override
+    public String getUrlQuery(String method) {
+      return null;
+    }
+
+    @Override
+    public List<String> getHttpRequestHeader(String method, String name) {
+      if (name.equals("x-forwarded-proto")) {
+        return Collections.singletonList("https");
+      }
+      return Collections.emptyList();
+    }
+
+    @Override
+    public Integer getHttpResponseStatusCode(
+        String method, Integer statusCode, @Nullable Throwable error) {
+      return statusCode;
+    }
+
+    @Override
+    public List<String> getHttpResponseHeader(String method, Integer statusCode, String name) {
+      return Collections.emptyList();
+    }
+
+    @Override
+    public String getNetworkProtocolName(String method, @Nullable Integer statusCode) {
+      return "HTTP";
+    }
+
+    @Override
+    public String getNetworkProtocolVersion(String method, @Nullable Integer statusCode) {
+      return "1.1";
+    }
+  }
+}
@@ -75,12 +75,16 @@ public class Instrumenter<REQUEST, RESPONSE> {
   private final SpanStatusExtractor<? super REQUEST, ? super RESPONSE> spanStatusExtractor;
   private final SpanLinksExtractor<? super REQUEST>[] spanLinksExtractors;
   private final AttributesExtractor<? super REQUEST, ? super RESPONSE>[] attributesExtractors;
+  private final AttributesExtractor<? super REQUEST, ? super RESPONSE>[]
+      spanOnlyAttributesExtractors;
   private final ContextCustomizer<? super REQUEST>[] contextCustomizers;
   private final OperationListener[] operationListeners;
   private final ErrorCauseExtractor errorCauseExtractor;
   private final boolean propagateOperationListenersToOnEnd;
   private final boolean enabled;
   private final SpanSuppressor spanSuppressor;
+  private final boolean poolScratchObjects;
+  private final boolean poolStartAttributes;
 
   @SuppressWarnings({"rawtypes", "unchecked"})
   Instrumenter(InstrumenterBuilder<REQUEST, RESPONSE> builder) {
@@ -90,13 +94,22 @@ public class Instrumenter<REQUEST, RESPONSE> {
     this.spanKindExtractor = builder.spanKindExtractor;
     this.spanStatusExtractor = builder.spanStatusExtractor;
     this.spanLinksExtractors = builder.spanLinksExtractors.toArray(new SpanLinksExtractor[0]);
-    this.attributesExtractors = builder.attributesExtractors.toArray(new AttributesExtractor[0]);
+    this.attributesExtractors =
+        builder.buildSamplingAttributesExtractors().toArray(new AttributesExtractor[0]);
+    this.spanOnlyAttributesExtractors =
+        builder.buildSpanOnlyAttributesExtractors().toArray(new AttributesExtractor[0]);
     this.contextCustomizers = builder.contextCustomizers.toArray(new ContextCustomizer[0]);
     this.operationListeners = builder.buildOperationListeners().toArray(new OperationListener[0]);
     this.errorCauseExtractor = builder.errorCauseExtractor;
     this.propagateOperationListenersToOnEnd = builder.propagateOperationListenersToOnEnd;
     this.enabled = builder.enabled;
     this.spanSuppressor = builder.buildSpanSuppressor();
+    this.poolScratchObjects = builder.poolScratchObjects;
+    // operation listeners and context customizers are allowed to keep a reference to the start
+    // attributes (e.g. to merge them with the end attributes in metrics), so they can only be
+    // reused when nothing else sees them
+    this.poolStartAttributes =
+        poolScratchObjects && operationListeners.length == 0 && contextCustomizers.length == 0;
   }
 
   /**
@@ -164,6 +177,21 @@ public class Instrumenter<REQUEST, RESPONSE> {
   }
 
   private Context doStart(Context parentContext, REQUEST request, @Nullable Instant startTime) {
+    OperationScratch scratch = poolScratchObjects ? OperationScratch.acquire() : null;
+    try {
+      return doStart(parentContext, request, startTime, scratch);
+    } finally {
+      if (scratch != null) {
+        scratch.release();
+      }
+    }
+  }
+
+  private Context doStart(
+      Context parentContext,
+      REQUEST request,
+      @Nullable Instant startTime,
+      @Nullable OperationScratch scratch) {
     SpanKind spanKind = spanKindExtractor.extract(request);
     SpanBuilder spanBuilder =
         tracer.spanBuilder(spanNameExtractor.extract(request)).setSpanKind(spanKind);
@@ -172,12 +200,16 @@ public class Instrumenter<REQUEST, RESPONSE> {
       spanBuilder.setStartTimestamp(startTime);
     }
 
-    SpanLinksBuilder spanLinksBuilder = new SpanLinksBuilderImpl(spanBuilder);
+    SpanLinksBuilder spanLinksBuilder =
+        scratch != null
+            ? scratch.spanLinksBuilder(spanBuilder)
+            : new SpanLinksBuilderImpl(spanBuilder);
     for (SpanLinksExtractor<? super REQUEST> spanLinksExtractor : spanLinksExtractors) {
       spanLinksExtractor.extract(spanLinksBuilder, parentContext, request);
     }
 
-    UnsafeAttributes attributes = new UnsafeAttributes();
+    UnsafeAttributes attributes =
+        scratch != null && poolStartAttributes ? scratch.attributes() : new UnsafeAttributes();
     for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
       extractor.onStart(attributes, parentContext, request);
     }
@@ -196,6 +228,18 @@ public class Instrumenter<REQUEST, RESPONSE> {
     Span span = spanBuilder.setParent(context).startSpan();
     context = context.with(span);
 
+    // span-only attributes are neither seen by the sampler nor by the operation listeners, there's
+    // no need to compute them at all when the sampler has decided to drop the span
+    if (spanOnlyAttributesExtractors.length != 0 && span.isRecording()) {
+      UnsafeAttributes spanOnlyAttributes =
+          scratch != null ? scratch.spanOnlyAttributes() : new UnsafeAttributes();
+      for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor :
+          spanOnlyAttributesExtractors) {
+        extractor.onStart(spanOnlyAttributes, parentContext, request);
+      }
+      span.setAllAttributes(spanOnlyAttributes);
+    }
+
     if (operationListeners.length != 0) {
       // operation listeners run after span start, so that they have access to the current span
       // for capturing exemplars
@@ -230,6 +274,23 @@ public class Instrumenter<REQUEST, RESPONSE> {
       @Nullable RESPONSE response,
       @Nullable Throwable error,
       @Nullable Instant endTime) {
+    OperationScratch scratch = poolScratchObjects ? OperationScratch.acquire() : null;
+    try {
+      doEnd(context, request, response, error, endTime, scratch);
+    } finally {
+      if (scratch != null) {
+        scratch.release();
+      }
+    }
+  }
+
+  private void doEnd(
+      Context context,
+      REQUEST request,
+      @Nullable RESPONSE response,
+      @Nullable Throwable error,
+      @Nullable Instant endTime,
+      @Nullable OperationScratch scratch) {
     Span span = Span.fromContext(context);
 
     if (error != null) {
@@ -237,11 +298,24 @@ public class Instrumenter<REQUEST, RESPONSE> {
       span.recordException(error);
     }
 
-    UnsafeAttributes attributes = new UnsafeAttributes();
+    // end attributes are only used synchronously by the operation listeners, so they can always be
+    // reused
+    UnsafeAttributes attributes = scratch != null ? scratch.attributes() : new UnsafeAttributes();
     for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor : attributesExtractors) {
       extractor.onEnd(attributes, context, request, response, error);
     }
-    span.setAllAttributes(attributes);
+    if (spanOnlyAttributesExtractors.length == 0) {
+      span.setAllAttributes(attributes);
+    } else if (span.isRecording()) {
+      span.setAllAttributes(attributes);
+      UnsafeAttributes spanOnlyAttributes =
+          scratch != null ? scratch.spanOnlyAttributes() : new UnsafeAttributes();
+      for (AttributesExtractor<? super REQUEST, ? super RESPONSE> extractor :
+          spanOnlyAttributesExtractors) {
+        extractor.onEnd(spanOnlyAttributes, context, request, response, error);
+      }
+      span.setAllAttributes(spanOnlyAttributes);
+    }
 
     OperationListener[] operationListeners = context.get(START_OPERATION_LISTENERS);
     if (operationListeners == null) {
@@ -254,7 +328,8 @@ public class Instrumenter<REQUEST, RESPONSE> {
       }
     }
 
-    SpanStatusBuilder spanStatusBuilder = new SpanStatusBuilderImpl(span);
+    SpanStatusBuilder spanStatusBuilder =
+        scratch != null ? scratch.spanStatusBuilder(span) : new SpanStatusBuilderImpl(span);
     spanStatusExtractor.extract(spanStatusBuilder, request, response, error);
 
     if (endTime != null) {
@@ -26,7 +26,9 @@ import io.opentelemetry.instrumentation.api.internal.InstrumenterUtil;
 import io.opentelemetry.instrumentation.api.internal.SchemaUrlProvider;
 import io.opentelemetry.instrumentation.api.internal.SpanKey;
 import io.opentelemetry.instrumentation.api.internal.SpanKeyProvider;
+import io.opentelemetry.instrumentation.api.internal.SpanOnlyAttributesProvider;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Logger;
@@ -68,6 +70,12 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
   ErrorCauseExtractor errorCauseExtractor = ErrorCauseExtractor.getDefault();
   boolean propagateOperationListenersToOnEnd = false;
   boolean enabled = true;
+  boolean samplingAwareAttributes =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.experimental.sampling-aware-attributes.enabled", false);
+  boolean poolScratchObjects =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.experimental.instrumenter-object-pooling.enabled", false);
 
   InstrumenterBuilder(
       OpenTelemetry openTelemetry,
@@ -359,6 +367,38 @@ public final class InstrumenterBuilder<REQUEST, RESPONSE> {
         spanSuppressionStrategy.create(getSpanKeysFromAttributesExtractors()));
   }
 
+  /**
+   * Returns the extractors whose attributes must be known before the span is started: they are
+   * passed to the sampler and to the operation listeners. When sampling-aware attribute extraction
+   * is disabled this is every registered extractor.
+   */
+  List<AttributesExtractor<? super REQUEST, ? super RESPONSE>> buildSamplingAttributesExtractors() {
+    if (!samplingAwareAttributes) {
+      return attributesExtractors;
+    }
+    return attributesExtractors.stream()
+        .filter(extractor -> !isSpanOnly(extractor))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the extractors whose attributes are only recorded on the span, and can therefore be
+   * skipped when the sampler decides not to record it.
+   */
+  List<AttributesExtractor<? super REQUEST, ? super RESPONSE>> buildSpanOnlyAttributesExtractors() {
+    if (!samplingAwareAttributes) {
+      return Collections.emptyList();
+    }
+    return attributesExtractors.stream()
+        .filter(InstrumenterBuilder::isSpanOnly)
+        .collect(Collectors.toList());
+  }
+
+  private static boolean isSpanOnly(AttributesExtractor<?, ?> extractor) {
+    return extractor instanceof SpanOnlyAttributesProvider
+        && ((SpanOnlyAttributesProvider) extractor).internalIsSpanOnly();
+  }
+
   private Set<SpanKey> getSpanKeysFromAttributesExtractors() {
     return attributesExtractors.stream()
         .filter(SpanKeyProvider.class::isInstance)
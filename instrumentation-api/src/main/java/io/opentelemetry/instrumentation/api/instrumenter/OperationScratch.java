@@ -0,0 +1,112 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanBuilder;
+import java.lang.reflect.Method;
+import javax.annotation.Nullable;
+
+/**
+ * Thread-confined scratch objects used by a single {@link Instrumenter} start or end call. The
+ * objects are reset when they're released, so that they can be reused by the next operation on the
+ * same thread.
+ *
+ * <p>Virtual threads never use the pool: they are cheap to create and usually short-lived, so a
+ * per-thread pool would only retain memory without ever being reused. Nested operations on the same
+ * thread (e.g. an extractor that triggers another instrumented call) fall back to allocating new
+ * objects too.
+ */
+final class OperationScratch {
+
+  @Nullable private static final Method isVirtual = findIsVirtual();
+
+  // shared by all virtual threads, always marked as in use so that it's never handed out
+  private static final OperationScratch UNAVAILABLE = new OperationScratch();
+
+  static {
+    UNAVAILABLE.inUse = true;
+  }
+
+  // whether the thread is virtual is only checked once, when its scratch objects are created
+  private static final ThreadLocal<OperationScratch> threadLocalScratch =
+      new ThreadLocal<OperationScratch>() {
+        @Override
+        protected OperationScratch initialValue() {
+          return isVirtualThread() ? UNAVAILABLE : new OperationScratch();
+        }
+      };
+
+  private final UnsafeAttributes attributes = new UnsafeAttributes();
+  private final UnsafeAttributes spanOnlyAttributes = new UnsafeAttributes();
+  private final SpanLinksBuilderImpl spanLinksBuilder = new SpanLinksBuilderImpl(null);
+  private final SpanStatusBuilderImpl spanStatusBuilder = new SpanStatusBuilderImpl(null);
+  private boolean inUse;
+
+  private OperationScratch() {}
+
+  /**
+   * Returns the scratch objects of the current thread, or {@code null} if they're not available and
+   * the caller should allocate new objects instead.
+   */
+  @Nullable
+  static OperationScratch acquire() {
+    OperationScratch scratch = threadLocalScratch.get();
+    if (scratch.inUse) {
+      return null;
+    }
+    scratch.inUse = true;
+    return scratch;
+  }
+
+  UnsafeAttributes attributes() {
+    return attributes;
+  }
+
+  UnsafeAttributes spanOnlyAttributes() {
+    return spanOnlyAttributes;
+  }
+
+  SpanLinksBuilderImpl spanLinksBuilder(SpanBuilder spanBuilder) {
+    spanLinksBuilder.setSpanBuilder(spanBuilder);
+    return spanLinksBuilder;
+  }
+
+  SpanStatusBuilderImpl spanStatusBuilder(Span span) {
+    spanStatusBuilder.setSpan(span);
+    return spanStatusBuilder;
+  }
+
+  void release() {
+    // HashMap.clear() keeps the already allocated table, so that the next operation does not need
+    // to resize it again
+    attributes.clear();
+    spanOnlyAttributes.clear();
+    spanLinksBuilder.setSpanBuilder(null);
+    spanStatusBuilder.setSpan(null);
+    inUse = false;
+  }
+
+  private static boolean isVirtualThread() {
+    if (isVirtual == null) {
+      return false;
+    }
+    try {
+      return (Boolean) isVirtual.invoke(Thread.currentThread());
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  @Nullable
+  private static Method findIsVirtual() {
+    try {
+      return Thread.class.getMethod("isVirtual");
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+}
@@ -11,12 +11,17 @@ import io.opentelemetry.api.trace.SpanBuilder;
 import io.opentelemetry.api.trace.SpanContext;
 
 final class SpanLinksBuilderImpl implements SpanLinksBuilder {
-  private final SpanBuilder spanBuilder;
+  // not final, instances are reused by the OperationScratch pool
+  private SpanBuilder spanBuilder;
 
   SpanLinksBuilderImpl(SpanBuilder spanBuilder) {
     this.spanBuilder = spanBuilder;
   }
 
+  void setSpanBuilder(SpanBuilder spanBuilder) {
+    this.spanBuilder = spanBuilder;
+  }
+
   @Override
   @CanIgnoreReturnValue
   public SpanLinksBuilder addLink(SpanContext spanContext) {
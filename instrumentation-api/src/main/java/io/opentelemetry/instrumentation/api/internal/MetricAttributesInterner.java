@@ -0,0 +1,143 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.api.incubator.metrics.ExtendedDoubleHistogramBuilder;
+import io.opentelemetry.api.metrics.DoubleHistogramBuilder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * Merges the start and end attributes of an operation into the attributes that a metric records.
+ * Only the attributes that the metric keeps according to its attributes advice are merged, and the
+ * same {@link Attributes} instance is returned for the same combination of their values, so that
+ * recording a measurement does not need to copy and sort all the attributes of the operation.
+ *
+ * <p>Enabled with {@code otel.instrumentation.experimental.metric-attributes-interning.enabled}.
+ * Note that a view that selects attributes not included in the advice won't see them.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class MetricAttributesInterner {
+
+  private static final boolean ENABLED =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.experimental.metric-attributes-interning.enabled", false);
+  // same as the default cardinality limit of the SDK
+  private static final int MAX_SIZE = 2000;
+
+  private final AttributeKey<?>[] keys;
+  private final ConcurrentHashMap<Key, Attributes> cache = new ConcurrentHashMap<>();
+  private final ThreadLocal<Key> lookupKey =
+      new ThreadLocal<Key>() {
+        @Override
+        protected Key initialValue() {
+          return new Key(new Object[keys.length], 0);
+        }
+      };
+
+  /**
+   * Returns an interner for a histogram that was given the {@code keys} as attributes advice, or
+   * {@code null} when interning is disabled or the histogram does not support the advice.
+   */
+  @Nullable
+  public static MetricAttributesInterner create(
+      DoubleHistogramBuilder builder, List<AttributeKey<?>> keys) {
+    // without the advice the SDK records all attributes, not only the advised ones
+    if (!ENABLED || !(builder instanceof ExtendedDoubleHistogramBuilder)) {
+      return null;
+    }
+    return new MetricAttributesInterner(keys);
+  }
+
+  /** Merges the attributes, the end attributes take precedence over the start attributes. */
+  public static Attributes merge(
+      @Nullable MetricAttributesInterner interner,
+      Attributes startAttributes,
+      Attributes endAttributes) {
+    if (interner == null) {
+      return startAttributes.toBuilder().putAll(endAttributes).build();
+    }
+    return interner.intern(startAttributes, endAttributes);
+  }
+
+  MetricAttributesInterner(List<AttributeKey<?>> keys) {
+    this.keys = keys.toArray(new AttributeKey<?>[0]);
+  }
+
+  Attributes intern(Attributes startAttributes, Attributes endAttributes) {
+    Key lookup = lookupKey.get();
+    Object[] values = lookup.values;
+    int hashCode = 1;
+    for (int i = 0; i < keys.length; i++) {
+      Object value = endAttributes.get(keys[i]);
+      if (value == null) {
+        value = startAttributes.get(keys[i]);
+      }
+      values[i] = value;
+      hashCode = 31 * hashCode + (value == null ? 0 : value.hashCode());
+    }
+    lookup.hashCode = hashCode;
+
+    Attributes attributes = cache.get(lookup);
+    if (attributes == null) {
+      attributes = toAttributes(values);
+      if (cache.size() < MAX_SIZE) {
+        Attributes previous = cache.putIfAbsent(new Key(values.clone(), hashCode), attributes);
+        if (previous != null) {
+          attributes = previous;
+        }
+      }
+    }
+    // don't keep the values of the last operation reachable from the thread
+    Arrays.fill(values, null);
+    return attributes;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Attributes toAttributes(Object[] values) {
+    AttributesBuilder builder = Attributes.builder();
+    for (int i = 0; i < keys.length; i++) {
+      if (values[i] != null) {
+        builder.put((AttributeKey<Object>) keys[i], values[i]);
+      }
+    }
+    return builder.build();
+  }
+
+  private static final class Key {
+    final Object[] values;
+    int hashCode;
+
+    Key(Object[] values, int hashCode) {
+      this.values = values;
+      this.hashCode = hashCode;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return hashCode == other.hashCode && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -0,0 +1,22 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+
+/**
+ * Marks whether the attributes produced by the {@link AttributesExtractor} that implements this
+ * interface are only ever recorded on the span. Span-only attributes are not passed to the sampler
+ * nor to operation listeners (e.g. metrics), so when sampling-aware attribute extraction is enabled
+ * the extractor is skipped entirely for spans that are not recording.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public interface SpanOnlyAttributesProvider {
+
+  boolean internalIsSpanOnly();
+}
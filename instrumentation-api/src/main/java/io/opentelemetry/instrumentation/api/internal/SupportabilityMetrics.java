@@ -124,6 +124,9 @@ public final class SupportabilityMetrics {
   public static final class CounterNames {
     public static final String SQL_STATEMENT_SANITIZER_CACHE_MISS =
         "SqlStatementSanitizer cache miss";
+    public static final String MUZZLE_EVALUATION = "Muzzle evaluation";
+    public static final String MUZZLE_EVALUATION_AVOIDED =
+        "Muzzle evaluation avoided, same jars as a previously checked class loader";
 
     private CounterNames() {}
   }
@@ -6,6 +6,7 @@
 package io.opentelemetry.instrumentation.api.internal.cache;
 
 import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.EntryWeigher;
 import java.util.function.Function;
 import javax.annotation.Nullable;
 
@@ -27,6 +28,14 @@ public interface Cache<K, V> {
     return new WeakLockFreeCache<>();
   }
 
+  /**
+   * Returns new unbounded cache, like {@link #weak()}. If cache metrics are enabled, the lookups
+   * and the size of the cache are reported under the given {@code name}, see {@link CacheMetrics}.
+   */
+  static <K, V> Cache<K, V> weak(String name) {
+    return CacheMetrics.isEnabled() ? CacheMetrics.weak(name) : weak();
+  }
+
   /**
    * Returns new bounded cache.
    *
@@ -38,6 +47,48 @@ public interface Cache<K, V> {
     return new MapBackedCache<>(map);
   }
 
+  /**
+   * Returns new bounded cache, like {@link #bounded(int)}. If cache metrics are enabled, the
+   * lookups, evictions and the size of the cache are reported under the given {@code name}, see
+   * {@link CacheMetrics}.
+   */
+  static <K, V> Cache<K, V> bounded(String name, int capacity) {
+    return CacheMetrics.isEnabled() ? CacheMetrics.bounded(name, capacity) : bounded(capacity);
+  }
+
+  /**
+   * Returns new bounded cache that limits the total weight of its entries, as computed by the
+   * {@code weigher}, instead of their number. If cache metrics are enabled, the lookups, evictions
+   * and the size of the cache are reported under the given {@code name}, see {@link
+   * CacheMetrics}.
+   *
+   * <p>Both keys and values are strongly referenced.
+   */
+  static <K, V> Cache<K, V> bounded(
+      String name, long maximumWeight, EntryWeigher<? super K, ? super V> weigher) {
+    if (CacheMetrics.isEnabled()) {
+      return CacheMetrics.bounded(name, maximumWeight, weigher);
+    }
+    ConcurrentLinkedHashMap<K, V> map =
+        new ConcurrentLinkedHashMap.Builder<K, V>()
+            .maximumWeightedCapacity(maximumWeight)
+            .weigher(weigher)
+            .build();
+    return new MapBackedCache<>(map);
+  }
+
+  /**
+   * Returns new bounded cache that decides which entries to retain based on both how recently and
+   * how frequently they were accessed (W-TinyLFU). Compared to {@link #bounded(int)} it keeps a
+   * better hit rate on skewed, high cardinality key streams and does not serialize eviction behind
+   * a single lock.
+   *
+   * <p>Both keys and values are strongly referenced.
+   */
+  static <K, V> Cache<K, V> boundedTinyLfu(int capacity) {
+    return new TinyLfuCache<>(capacity);
+  }
+
   /**
    * Returns the cached value associated with the provided {@code key}. If no value is cached yet,
    * computes the value using {@code mappingFunction}, stores the result, and returns it.
@@ -0,0 +1,144 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
+import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.EntryWeigher;
+import io.opentelemetry.instrumentation.api.internal.cache.concurrentlinkedhashmap.Weighers;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of the statistics of named caches, see {@link Cache#bounded(String, int)} and {@link
+ * Cache#weak(String)}. Cache metrics are disabled by default; when they're disabled named caches
+ * are not registered and don't record anything.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public final class CacheMetrics {
+
+  private static final String INSTRUMENTATION_NAME = "io.opentelemetry.instrumentation.cache";
+  private static final double NANOS_PER_S = TimeUnit.SECONDS.toNanos(1);
+
+  private static volatile boolean enabled =
+      ConfigPropertiesUtil.getBoolean(
+          "otel.instrumentation.experimental.cache-metrics.enabled", false);
+
+  private static final ConcurrentMap<String, CacheStats> statsByName = new ConcurrentHashMap<>();
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Overrides whether cache metrics are enabled. Only the named caches that are created afterwards
+   * are affected, so the javaagent calls this before it creates its own caches, with the value that
+   * it read from all of its configuration sources, including the configuration file.
+   */
+  public static void setEnabled(boolean enabled) {
+    CacheMetrics.enabled = enabled;
+  }
+
+  /**
+   * Registers observable instruments that report the hits, misses, evictions, size and load time of
+   * all the named caches, including the ones that are created after this method was called.
+   */
+  public static List<AutoCloseable> registerObservers(OpenTelemetry openTelemetry) {
+    Meter meter = openTelemetry.getMeter(INSTRUMENTATION_NAME);
+    List<AutoCloseable> observables = new ArrayList<>();
+    observables.add(
+        meter
+            .counterBuilder("otel.instrumentation.cache.gets")
+            .setUnit("{get}")
+            .setDescription("Number of cache lookups, by whether the value was found.")
+            .buildWithCallback(
+                measurement ->
+                    statsByName
+                        .values()
+                        .forEach(
+                            stats -> {
+                              measurement.record(stats.hits.sum(), stats.hitAttributes);
+                              measurement.record(stats.misses.sum(), stats.missAttributes);
+                            })));
+    observables.add(
+        meter
+            .counterBuilder("otel.instrumentation.cache.evictions")
+            .setUnit("{entry}")
+            .setDescription("Number of entries evicted because the cache reached its capacity.")
+            .buildWithCallback(
+                measurement ->
+                    statsByName
+                        .values()
+                        .forEach(
+                            stats -> measurement.record(stats.evictions.sum(), stats.attributes))));
+    observables.add(
+        meter
+            .upDownCounterBuilder("otel.instrumentation.cache.size")
+            .setUnit("{entry}")
+            .setDescription("Number of entries in the cache.")
+            .buildWithCallback(
+                measurement ->
+                    statsByName
+                        .values()
+                        .forEach(stats -> measurement.record(stats.size(), stats.attributes))));
+    observables.add(
+        meter
+            .counterBuilder("otel.instrumentation.cache.load.time")
+            .ofDoubles()
+            .setUnit("s")
+            .setDescription("Time spent computing the values that were missing from the cache.")
+            .buildWithCallback(
+                measurement ->
+                    statsByName
+                        .values()
+                        .forEach(
+                            stats ->
+                                measurement.record(
+                                    stats.loadTimeNanos.sum() / NANOS_PER_S, stats.attributes))));
+    return observables;
+  }
+
+  static <K, V> Cache<K, V> weak(String name) {
+    CacheStats stats = stats(name);
+    WeakLockFreeCache<K, V> cache = new WeakLockFreeCache<>();
+    return register(new MeteredCache<>(cache, cache::size, stats), stats);
+  }
+
+  static <K, V> Cache<K, V> bounded(String name, int capacity) {
+    return bounded(name, capacity, Weighers.entrySingleton());
+  }
+
+  static <K, V> Cache<K, V> bounded(
+      String name, long maximumWeight, EntryWeigher<? super K, ? super V> weigher) {
+    CacheStats stats = stats(name);
+    ConcurrentLinkedHashMap<K, V> map =
+        new ConcurrentLinkedHashMap.Builder<K, V>()
+            .maximumWeightedCapacity(maximumWeight)
+            .weigher(weigher)
+            .listener((key, value) -> stats.evictions.increment())
+            .build();
+    MapBackedCache<K, V> cache = new MapBackedCache<>(map);
+    return register(new MeteredCache<>(cache, cache::size, stats), stats);
+  }
+
+  private static CacheStats stats(String name) {
+    return statsByName.computeIfAbsent(name, CacheStats::new);
+  }
+
+  private static <K, V> Cache<K, V> register(MeteredCache<K, V> cache, CacheStats stats) {
+    stats.register(cache);
+    return cache;
+  }
+
+  private CacheMetrics() {}
+}
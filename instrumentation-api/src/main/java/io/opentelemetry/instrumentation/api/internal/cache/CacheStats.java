@@ -0,0 +1,58 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/** Statistics of all the caches that were created with the same name. */
+final class CacheStats {
+
+  private static final AttributeKey<String> CACHE_NAME = AttributeKey.stringKey("cache.name");
+  private static final AttributeKey<String> CACHE_RESULT = AttributeKey.stringKey("cache.result");
+
+  final StripedCounter hits = new StripedCounter();
+  final StripedCounter misses = new StripedCounter();
+  final StripedCounter evictions = new StripedCounter();
+  final StripedCounter loadTimeNanos = new StripedCounter();
+
+  final Attributes attributes;
+  final Attributes hitAttributes;
+  final Attributes missAttributes;
+
+  // caches are referenced weakly, so that short-lived named caches can still be garbage collected
+  private final List<WeakReference<MeteredCache<?, ?>>> caches = new CopyOnWriteArrayList<>();
+
+  CacheStats(String name) {
+    attributes = Attributes.of(CACHE_NAME, name);
+    hitAttributes = Attributes.of(CACHE_NAME, name, CACHE_RESULT, "hit");
+    missAttributes = Attributes.of(CACHE_NAME, name, CACHE_RESULT, "miss");
+  }
+
+  void register(MeteredCache<?, ?> cache) {
+    caches.add(new WeakReference<>(cache));
+  }
+
+  long size() {
+    long size = 0;
+    boolean cleared = false;
+    for (WeakReference<MeteredCache<?, ?>> reference : caches) {
+      MeteredCache<?, ?> cache = reference.get();
+      if (cache == null) {
+        cleared = true;
+      } else {
+        size += cache.size();
+      }
+    }
+    if (cleared) {
+      caches.removeIf(reference -> reference.get() == null);
+    }
+    return size;
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+/**
+ * A probabilistic estimate of how often a key was accessed recently: a count-min sketch with four
+ * 4-bit counters per key. Once the number of recorded accesses reaches ten times the cache capacity
+ * all counters are halved, so that the estimate favours recent popularity.
+ *
+ * <p>This class is not thread-safe, callers are expected to guard it with a lock.
+ */
+final class FrequencySketch {
+
+  private static final long[] SEEDS = {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final long ONE_MASK = 0x1111111111111111L;
+
+  private final long[] table;
+  private final int tableMask;
+  private final int sampleSize;
+  private int size;
+
+  FrequencySketch(int capacity) {
+    int maximum = Math.max(8, Math.min(capacity, 1 << 30));
+    // each long holds 16 counters, which is enough for the four counters of four keys
+    table = new long[ceilingPowerOfTwo(maximum)];
+    tableMask = table.length - 1;
+    sampleSize = 10 * maximum;
+  }
+
+  /** Returns the estimated number of recent accesses of the key with the given hash, up to 15. */
+  int frequency(int hash) {
+    int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((table[index] >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /** Records an access of the key with the given hash. */
+  void increment(int hash) {
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++size == sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((table[index] & mask) != mask) {
+      table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  private void reset() {
+    int odd = 0;
+    for (int i = 0; i < table.length; i++) {
+      odd += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    size = (size >>> 1) - (odd >>> 2);
+  }
+
+  private int indexOf(int hash, int depth) {
+    long value = (hash + SEEDS[depth]) * SEEDS[depth];
+    value += value >>> 32;
+    return ((int) value) & tableMask;
+  }
+
+  static int ceilingPowerOfTwo(int value) {
+    return 1 << -Integer.numberOfLeadingZeros(value - 1);
+  }
+}
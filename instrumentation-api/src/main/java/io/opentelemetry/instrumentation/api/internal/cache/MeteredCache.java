@@ -0,0 +1,91 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import javax.annotation.Nullable;
+
+/** A {@link Cache} that records its hits, misses and load time into {@link CacheStats}. */
+final class MeteredCache<K, V> implements Cache<K, V> {
+
+  private final Cache<K, V> delegate;
+  private final IntSupplier sizeSupplier;
+  private final CacheStats stats;
+
+  MeteredCache(Cache<K, V> delegate, IntSupplier sizeSupplier, CacheStats stats) {
+    this.delegate = delegate;
+    this.sizeSupplier = sizeSupplier;
+    this.stats = stats;
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    V value = delegate.get(key);
+    if (value != null) {
+      stats.hits.increment();
+      return value;
+    }
+    // the mapping function is only wrapped on a miss
+    LoadingFunction<K, V> loadingFunction = new LoadingFunction<>(mappingFunction, stats);
+    value = delegate.computeIfAbsent(key, loadingFunction);
+    if (!loadingFunction.invoked) {
+      // another thread added the value in the meantime
+      stats.hits.increment();
+    }
+    return value;
+  }
+
+  @Nullable
+  @Override
+  public V get(K key) {
+    V value = delegate.get(key);
+    if (value == null) {
+      stats.misses.increment();
+    } else {
+      stats.hits.increment();
+    }
+    return value;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    delegate.put(key, value);
+  }
+
+  @Override
+  public void remove(K key) {
+    delegate.remove(key);
+  }
+
+  int size() {
+    return sizeSupplier.getAsInt();
+  }
+
+  private static final class LoadingFunction<K, V> implements Function<K, V> {
+
+    private final Function<? super K, ? extends V> mappingFunction;
+    private final CacheStats stats;
+    boolean invoked;
+
+    LoadingFunction(Function<? super K, ? extends V> mappingFunction, CacheStats stats) {
+      this.mappingFunction = mappingFunction;
+      this.stats = stats;
+    }
+
+    @Override
+    public V apply(K key) {
+      invoked = true;
+      stats.misses.increment();
+      long startNanos = System.nanoTime();
+      try {
+        return mappingFunction.apply(key);
+      } finally {
+        stats.loadTimeNanos.add(System.nanoTime() - startNanos);
+      }
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter that spreads concurrent updates over several cells selected by the current thread, so
+ * that threads updating the same counter rarely contend on the same cache line.
+ */
+final class StripedCounter {
+
+  private static final int STRIPES =
+      Math.min(16, FrequencySketch.ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors()));
+  // the cells are 8 longs (64 bytes) apart, so that each of them is on its own cache line
+  private static final int PADDING = 8;
+
+  private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+  void increment() {
+    add(1);
+  }
+
+  void add(long value) {
+    cells.getAndAdd(cellIndex(), value);
+  }
+
+  long sum() {
+    long sum = 0;
+    for (int i = 0; i < STRIPES; i++) {
+      sum += cells.get(i * PADDING);
+    }
+    return sum;
+  }
+
+  private static int cellIndex() {
+    int hash = (int) Thread.currentThread().getId() * 0x9e3779b9;
+    return ((hash >>> 16) & (STRIPES - 1)) * PADDING;
+  }
+}
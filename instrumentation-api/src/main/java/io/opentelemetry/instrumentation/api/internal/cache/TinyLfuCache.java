@@ -0,0 +1,315 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * A bounded cache that uses W-TinyLFU style admission. Entries are stored in a {@link
+ * ConcurrentHashMap}, so lookups never block. The eviction policy is split into independent
+ * segments selected by the key hash, each with its own lock, its own lossy read buffer and its own
+ * frequency sketch, so that threads accessing different keys rarely contend on the same lock.
+ *
+ * <p>Within a segment new entries first go to a small LRU window. Entries leaving the window are
+ * only admitted into the main LRU space if they were accessed more frequently than the entry they
+ * would evict, which protects the cache against one-hit wonders on high cardinality key streams.
+ */
+final class TinyLfuCache<K, V> implements Cache<K, V> {
+
+  // roughly the number of keys each segment should hold before adding more segments pays off
+  private static final int MIN_SEGMENT_CAPACITY = 32;
+  private static final int MAX_SEGMENTS =
+      FrequencySketch.ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors());
+
+  private final ConcurrentHashMap<K, Node<K, V>> data;
+  private final Segment<K, V>[] segments;
+  private final int segmentMask;
+
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  TinyLfuCache(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    int segmentCount =
+        Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, capacity / MIN_SEGMENT_CAPACITY)));
+    data = new ConcurrentHashMap<>(Math.min(capacity, 1 << 16), 0.75f, segmentCount);
+    segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      int segmentCapacity = capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0);
+      segments[i] = new Segment<>(segmentCapacity, data);
+    }
+    segmentMask = segmentCount - 1;
+  }
+
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    Node<K, V> node = data.get(key);
+    if (node != null) {
+      segmentFor(node.hash).afterRead(node);
+      return node.value;
+    }
+    V value = mappingFunction.apply(key);
+    if (value == null) {
+      return null;
+    }
+    Node<K, V> newNode = new Node<>(key, spread(key.hashCode()), value);
+    Node<K, V> prior = data.putIfAbsent(key, newNode);
+    if (prior != null) {
+      segmentFor(prior.hash).afterRead(prior);
+      return prior.value;
+    }
+    segmentFor(newNode.hash).afterWrite(newNode);
+    return value;
+  }
+
+  @Nullable
+  @Override
+  public V get(K key) {
+    Node<K, V> node = data.get(key);
+    if (node == null) {
+      return null;
+    }
+    segmentFor(node.hash).afterRead(node);
+    return node.value;
+  }
+
+  @Override
+  public void put(K key, V value) {
+    Node<K, V> node = data.get(key);
+    if (node == null) {
+      Node<K, V> newNode = new Node<>(key, spread(key.hashCode()), value);
+      node = data.putIfAbsent(key, newNode);
+      if (node == null) {
+        segmentFor(newNode.hash).afterWrite(newNode);
+        return;
+      }
+    }
+    node.value = value;
+    segmentFor(node.hash).afterRead(node);
+  }
+
+  @Override
+  public void remove(K key) {
+    Node<K, V> node = data.remove(key);
+    if (node != null) {
+      segmentFor(node.hash).afterRemove(node);
+    }
+  }
+
+  // Visible for tests
+  int size() {
+    return data.size();
+  }
+
+  private Segment<K, V> segmentFor(int hash) {
+    // the low bits are used by the frequency sketch, pick the segment using the high bits
+    return segments[(hash >>> 16) & segmentMask];
+  }
+
+  private static int spread(int hashCode) {
+    int hash = hashCode * 0x9e3779b9;
+    return hash ^ (hash >>> 16);
+  }
+
+  private static final class Segment<K, V> {
+
+    private static final int READ_BUFFER_SIZE = 16;
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+
+    private final ConcurrentHashMap<K, Node<K, V>> data;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicReferenceArray<Node<K, V>> readBuffer =
+        new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicInteger readCounter = new AtomicInteger();
+
+    // guarded by lock
+    private final FrequencySketch sketch;
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> main = new AccessOrderDeque<>();
+    private final int maxWindowSize;
+    private final int maxMainSize;
+
+    Segment(int capacity, ConcurrentHashMap<K, Node<K, V>> data) {
+      this.data = data;
+      sketch = new FrequencySketch(capacity);
+      maxWindowSize = Math.max(1, capacity / 100);
+      maxMainSize = capacity - maxWindowSize;
+    }
+
+    void afterRead(Node<K, V> node) {
+      // the read buffer is lossy: under contention some accesses are simply not recorded, which
+      // only slightly affects the precision of the eviction policy
+      int index = readCounter.getAndIncrement() & READ_BUFFER_MASK;
+      readBuffer.lazySet(index, node);
+      if (index == READ_BUFFER_MASK && lock.tryLock()) {
+        try {
+          drainReadBuffer();
+        } finally {
+          lock.unlock();
+        }
+      }
+    }
+
+    void afterWrite(Node<K, V> node) {
+      lock.lock();
+      try {
+        drainReadBuffer();
+        // the node could have been removed before its addition was applied to the policy
+        if (node.queue != Node.REMOVED) {
+          sketch.increment(node.hash);
+          window.addLast(node);
+          node.queue = Node.WINDOW;
+          evict();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void afterRemove(Node<K, V> node) {
+      lock.lock();
+      try {
+        unlink(node);
+        node.queue = Node.REMOVED;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void drainReadBuffer() {
+      for (int i = 0; i < READ_BUFFER_SIZE; i++) {
+        Node<K, V> node = readBuffer.getAndSet(i, null);
+        if (node == null) {
+          continue;
+        }
+        sketch.increment(node.hash);
+        if (node.queue == Node.WINDOW) {
+          window.moveToLast(node);
+        } else if (node.queue == Node.MAIN) {
+          main.moveToLast(node);
+        }
+      }
+    }
+
+    private void evict() {
+      while (window.size > maxWindowSize) {
+        Node<K, V> candidate = window.removeFirst();
+        if (main.size < maxMainSize) {
+          main.addLast(candidate);
+          candidate.queue = Node.MAIN;
+          continue;
+        }
+        Node<K, V> victim = main.peekFirst();
+        if (victim != null && sketch.frequency(candidate.hash) > sketch.frequency(victim.hash)) {
+          main.removeFirst();
+          evictEntry(victim);
+          main.addLast(candidate);
+          candidate.queue = Node.MAIN;
+        } else {
+          evictEntry(candidate);
+        }
+      }
+    }
+
+    private void evictEntry(Node<K, V> node) {
+      node.queue = Node.REMOVED;
+      // the key may have been removed and added again in the meantime
+      data.remove(node.key, node);
+    }
+
+    private void unlink(Node<K, V> node) {
+      if (node.queue == Node.WINDOW) {
+        window.remove(node);
+      } else if (node.queue == Node.MAIN) {
+        main.remove(node);
+      }
+    }
+  }
+
+  private static final class Node<K, V> {
+
+    static final int NONE = 0;
+    static final int WINDOW = 1;
+    static final int MAIN = 2;
+    static final int REMOVED = 3;
+
+    final K key;
+    final int hash;
+    volatile V value;
+
+    // guarded by the segment lock
+    int queue = NONE;
+    @Nullable Node<K, V> prev;
+    @Nullable Node<K, V> next;
+
+    Node(K key, int hash, V value) {
+      this.key = key;
+      this.hash = hash;
+      this.value = value;
+    }
+  }
+
+  /** A minimal intrusive doubly linked list, least recently used entry first. */
+  private static final class AccessOrderDeque<K, V> {
+
+    @Nullable private Node<K, V> first;
+    @Nullable private Node<K, V> last;
+    int size;
+
+    @Nullable
+    Node<K, V> peekFirst() {
+      return first;
+    }
+
+    void addLast(Node<K, V> node) {
+      node.prev = last;
+      node.next = null;
+      if (last == null) {
+        first = node;
+      } else {
+        last.next = node;
+      }
+      last = node;
+      size++;
+    }
+
+    Node<K, V> removeFirst() {
+      Node<K, V> node = first;
+      remove(node);
+      return node;
+    }
+
+    void moveToLast(Node<K, V> node) {
+      if (node != last) {
+        remove(node);
+        addLast(node);
+      }
+    }
+
+    void remove(Node<K, V> node) {
+      Node<K, V> prev = node.prev;
+      Node<K, V> next = node.next;
+      if (prev == null) {
+        first = next;
+      } else {
+        prev.next = next;
+      }
+      if (next == null) {
+        last = prev;
+      } else {
+        next.prev = prev;
+      }
+      node.prev = null;
+      node.next = null;
+      size--;
+    }
+  }
+}
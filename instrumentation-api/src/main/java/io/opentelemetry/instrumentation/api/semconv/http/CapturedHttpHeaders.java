@@ -0,0 +1,85 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.semconv.http;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.AttributesBuilder;
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The HTTP request or response headers captured by an extractor, with their lowercase names and
+ * attribute keys resolved once when the extractor is created.
+ */
+final class CapturedHttpHeaders {
+
+  // maximum total length of the header values captured from a single request, or response
+  private static final int MAX_LENGTH =
+      ConfigPropertiesUtil.getInt(
+          "otel.instrumentation.experimental.http.capture-headers.max-length", -1);
+
+  static CapturedHttpHeaders request(List<String> names) {
+    return new CapturedHttpHeaders("request", names, MAX_LENGTH);
+  }
+
+  static CapturedHttpHeaders response(List<String> names) {
+    return new CapturedHttpHeaders("response", names, MAX_LENGTH);
+  }
+
+  private final String[] names;
+  private final AttributeKey<List<String>>[] keys;
+  private final int maxLength;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  CapturedHttpHeaders(String type, List<String> names, int maxLength) {
+    this.names = new String[names.size()];
+    this.keys = new AttributeKey[names.size()];
+    for (int i = 0; i < this.names.length; i++) {
+      String name = names.get(i).toLowerCase(Locale.ROOT);
+      this.names[i] = name;
+      this.keys[i] = AttributeKey.stringArrayKey("http." + type + ".header." + name);
+    }
+    this.maxLength = maxLength;
+  }
+
+  int size() {
+    return names.length;
+  }
+
+  String name(int index) {
+    return names[index];
+  }
+
+  /** Returns the total length of the header values that can be captured, or -1 if unlimited. */
+  int maxLength() {
+    return maxLength;
+  }
+
+  /**
+   * Sets the values of the header at the given index if they fit into the remaining length, and
+   * returns the length that remains for the following headers.
+   */
+  int capture(AttributesBuilder attributes, int index, List<String> values, int remainingLength) {
+    if (values.isEmpty()) {
+      return remainingLength;
+    }
+    if (remainingLength < 0) {
+      attributes.put(keys[index], values);
+      return remainingLength;
+    }
+    int length = 0;
+    for (int i = 0; i < values.size(); i++) {
+      length += values.get(i).length();
+    }
+    if (length > remainingLength) {
+      // skip the header, the values of the following headers may still fit
+      return remainingLength;
+    }
+    attributes.put(keys[index], values);
+    return remainingLength - length;
+  }
+}
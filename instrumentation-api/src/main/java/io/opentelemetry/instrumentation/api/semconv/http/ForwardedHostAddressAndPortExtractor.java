@@ -5,11 +5,11 @@
 
 package io.opentelemetry.instrumentation.api.semconv.http;
 
+import static io.opentelemetry.instrumentation.api.semconv.http.HeaderParsingHelper.indexOfIgnoreCase;
 import static io.opentelemetry.instrumentation.api.semconv.http.HeaderParsingHelper.notFound;
 import static io.opentelemetry.instrumentation.api.semconv.http.HeaderParsingHelper.setPort;
 
 import io.opentelemetry.instrumentation.api.semconv.network.internal.AddressAndPortExtractor;
-import java.util.Locale;
 
 final class ForwardedHostAddressAndPortExtractor<REQUEST>
     implements AddressAndPortExtractor<REQUEST> {
@@ -52,7 +52,7 @@ final class ForwardedHostAddressAndPortExtractor<REQUEST>
   }
 
   private static boolean extractFromForwardedHeader(AddressPortSink sink, String forwarded) {
-    int start = forwarded.toLowerCase(Locale.ROOT).indexOf("host=");
+    int start = indexOfIgnoreCase(forwarded, "host=");
     if (start < 0) {
       return false;
     }
@@ -5,7 +5,8 @@
 
 package io.opentelemetry.instrumentation.api.semconv.http;
 
-import java.util.Locale;
+import static io.opentelemetry.instrumentation.api.semconv.http.HeaderParsingHelper.indexOfIgnoreCase;
+
 import java.util.function.Function;
 import javax.annotation.Nullable;
 
@@ -41,7 +42,7 @@ final class ForwardedUrlSchemeProvider<REQUEST> implements Function<REQUEST, Str
   /** Extract proto (aka scheme) from "Forwarded" http header. */
   @Nullable
   private static String extractProtoFromForwardedHeader(String forwarded) {
-    int start = forwarded.toLowerCase(Locale.ROOT).indexOf("proto=");
+    int start = indexOfIgnoreCase(forwarded, "proto=");
     if (start < 0) {
       return null;
     }
@@ -72,9 +73,9 @@ final class ForwardedUrlSchemeProvider<REQUEST> implements Function<REQUEST, Str
         if (i == start) { // empty string
           return null;
         }
-        return forwarded.substring(start, i);
+        return HttpAttributeValues.scheme(forwarded, start, i);
       }
     }
-    return forwarded.substring(start);
+    return HttpAttributeValues.scheme(forwarded, start, forwarded.length());
   }
 }
@@ -13,15 +13,41 @@ final class HeaderParsingHelper {
     return pos < 0 || pos >= end;
   }
 
+  /**
+   * Returns the index of the first case-insensitive occurrence of the lowercase {@code token} in
+   * the header, without creating a lowercase copy of the header.
+   */
+  static int indexOfIgnoreCase(String header, String token) {
+    int last = header.length() - token.length();
+    char first = token.charAt(0);
+    for (int i = 0; i <= last; i++) {
+      char c = header.charAt(i);
+      if ((c == first || Character.toLowerCase(c) == first)
+          && header.regionMatches(true, i + 1, token, 1, token.length() - 1)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
   static void setPort(AddressPortSink sink, String header, int start, int end) {
     if (start == end) {
       return;
     }
-    try {
-      sink.setPort(Integer.parseInt(header.substring(start, end)));
-    } catch (NumberFormatException ignored) {
-      // malformed port, ignoring
+    // parse the digits in place instead of parsing a substring
+    long port = 0;
+    for (int i = start; i < end; i++) {
+      char c = header.charAt(i);
+      if (c < '0' || c > '9') {
+        // malformed port, ignoring
+        return;
+      }
+      port = port * 10 + (c - '0');
+      if (port > Integer.MAX_VALUE) {
+        return;
+      }
     }
+    sink.setPort((int) port);
   }
 
   private HeaderParsingHelper() {}
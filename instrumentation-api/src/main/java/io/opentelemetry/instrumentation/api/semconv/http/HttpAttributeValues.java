@@ -0,0 +1,77 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.semconv.http;
+
+import java.util.Locale;
+import javax.annotation.Nullable;
+
+/**
+ * Canonical instances of the common HTTP attribute values. Mapping the values returned by the
+ * getters to these constants avoids boxing status codes and creating new strings for every
+ * request.
+ */
+final class HttpAttributeValues {
+
+  private static final int MIN_STATUS_CODE = 100;
+  private static final int MAX_STATUS_CODE = 599;
+
+  private static final Long[] STATUS_CODES = new Long[MAX_STATUS_CODE - MIN_STATUS_CODE + 1];
+  private static final String[] STATUS_CODE_STRINGS =
+      new String[MAX_STATUS_CODE - MIN_STATUS_CODE + 1];
+
+  static {
+    for (int i = 0; i < STATUS_CODES.length; i++) {
+      STATUS_CODES[i] = (long) (MIN_STATUS_CODE + i);
+      STATUS_CODE_STRINGS[i] = Integer.toString(MIN_STATUS_CODE + i);
+    }
+  }
+
+  private static final String[] SCHEMES = {"http", "https"};
+
+  /** Returns the status code as a {@link Long}, without allocating for valid status codes. */
+  static Long statusCode(int statusCode) {
+    if (statusCode >= MIN_STATUS_CODE && statusCode <= MAX_STATUS_CODE) {
+      return STATUS_CODES[statusCode - MIN_STATUS_CODE];
+    }
+    return (long) statusCode;
+  }
+
+  /** Returns the status code as a string, without allocating for valid status codes. */
+  static String statusCodeString(int statusCode) {
+    if (statusCode >= MIN_STATUS_CODE && statusCode <= MAX_STATUS_CODE) {
+      return STATUS_CODE_STRINGS[statusCode - MIN_STATUS_CODE];
+    }
+    return Integer.toString(statusCode);
+  }
+
+  /** Returns the lowercase network protocol name, without allocating for {@code http}. */
+  @Nullable
+  static String protocolName(@Nullable String protocolName) {
+    if (protocolName == null) {
+      return null;
+    }
+    if ("http".equalsIgnoreCase(protocolName)) {
+      return "http";
+    }
+    return protocolName.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Returns the scheme found between {@code start} and {@code end} in the given string, without
+   * allocating for {@code http} and {@code https}.
+   */
+  static String scheme(String value, int start, int end) {
+    int length = end - start;
+    for (String scheme : SCHEMES) {
+      if (scheme.length() == length && value.regionMatches(start, scheme, 0, length)) {
+        return scheme;
+      }
+    }
+    return value.substring(start, end);
+  }
+
+  private HttpAttributeValues() {}
+}
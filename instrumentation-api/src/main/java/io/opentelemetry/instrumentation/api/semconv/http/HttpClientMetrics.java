@@ -17,9 +17,11 @@ import io.opentelemetry.context.ContextKey;
 import io.opentelemetry.instrumentation.api.instrumenter.InstrumenterBuilder;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationListener;
 import io.opentelemetry.instrumentation.api.instrumenter.OperationMetrics;
+import io.opentelemetry.instrumentation.api.internal.MetricAttributesInterner;
 import io.opentelemetry.instrumentation.api.internal.OperationMetricsUtil;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 
 /**
  * {@link OperationListener} which keeps track of <a
@@ -48,6 +50,7 @@ public final class HttpClientMetrics implements OperationListener {
   }
 
   private final DoubleHistogram duration;
+  @Nullable private final MetricAttributesInterner attributesInterner;
 
   private HttpClientMetrics(Meter meter) {
     DoubleHistogramBuilder stableDurationBuilder =
@@ -58,6 +61,9 @@ public final class HttpClientMetrics implements OperationListener {
             .setExplicitBucketBoundariesAdvice(HttpMetricsAdvice.DURATION_SECONDS_BUCKETS);
     HttpMetricsAdvice.applyClientDurationAdvice(stableDurationBuilder);
     duration = stableDurationBuilder.build();
+    attributesInterner =
+        MetricAttributesInterner.create(
+            stableDurationBuilder, HttpMetricsAdvice.CLIENT_DURATION_ATTRIBUTES);
   }
 
   @Override
@@ -78,7 +84,9 @@ public final class HttpClientMetrics implements OperationListener {
       return;
     }
 
-    Attributes attributes = state.startAttributes().toBuilder().putAll(endAttributes).build();
+    Attributes attributes =
+        MetricAttributesInterner.merge(
+            attributesInterner, state.startAttributes(), endAttributes);
 
     duration.record((endNanos - state.startTimeNanos()) / NANOS_PER_S, attributes, context);
   }
@@ -7,9 +7,6 @@ package io.opentelemetry.instrumentation.api.semconv.http;
 
 import static io.opentelemetry.instrumentation.api.internal.AttributesExtractorUtil.internalSet;
 import static io.opentelemetry.instrumentation.api.internal.HttpConstants._OTHER;
-import static io.opentelemetry.instrumentation.api.semconv.http.CapturedHttpHeadersUtil.lowercase;
-import static io.opentelemetry.instrumentation.api.semconv.http.CapturedHttpHeadersUtil.requestAttributeKey;
-import static io.opentelemetry.instrumentation.api.semconv.http.CapturedHttpHeadersUtil.responseAttributeKey;
 
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
@@ -39,8 +36,8 @@ abstract class HttpCommonAttributesExtractor<
 
   final GETTER getter;
   private final HttpStatusCodeConverter statusCodeConverter;
-  private final String[] capturedRequestHeaders;
-  private final String[] capturedResponseHeaders;
+  private final CapturedHttpHeaders capturedRequestHeaders;
+  private final CapturedHttpHeaders capturedResponseHeaders;
   private final Set<String> knownMethods;
 
   HttpCommonAttributesExtractor(
@@ -51,8 +48,8 @@ abstract class HttpCommonAttributesExtractor<
       Set<String> knownMethods) {
     this.getter = getter;
     this.statusCodeConverter = statusCodeConverter;
-    this.capturedRequestHeaders = lowercase(capturedRequestHeaders);
-    this.capturedResponseHeaders = lowercase(capturedResponseHeaders);
+    this.capturedRequestHeaders = CapturedHttpHeaders.request(capturedRequestHeaders);
+    this.capturedResponseHeaders = CapturedHttpHeaders.response(capturedResponseHeaders);
     this.knownMethods = new HashSet<>(knownMethods);
   }
 
@@ -66,11 +63,10 @@ abstract class HttpCommonAttributesExtractor<
       internalSet(attributes, HttpAttributes.HTTP_REQUEST_METHOD_ORIGINAL, method);
     }
 
-    for (String name : capturedRequestHeaders) {
-      List<String> values = getter.getHttpRequestHeader(request, name);
-      if (!values.isEmpty()) {
-        internalSet(attributes, requestAttributeKey(name), values);
-      }
+    int remainingLength = capturedRequestHeaders.maxLength();
+    for (int i = 0; i < capturedRequestHeaders.size() && remainingLength != 0; i++) {
+      List<String> values = getter.getHttpRequestHeader(request, capturedRequestHeaders.name(i));
+      remainingLength = capturedRequestHeaders.capture(attributes, i, values, remainingLength);
     }
   }
 
@@ -86,21 +82,24 @@ abstract class HttpCommonAttributesExtractor<
     if (response != null) {
       statusCode = getter.getHttpResponseStatusCode(request, response, error);
       if (statusCode != null && statusCode > 0) {
-        internalSet(attributes, HttpAttributes.HTTP_RESPONSE_STATUS_CODE, (long) statusCode);
+        internalSet(
+            attributes,
+            HttpAttributes.HTTP_RESPONSE_STATUS_CODE,
+            HttpAttributeValues.statusCode(statusCode));
       }
 
-      for (String name : capturedResponseHeaders) {
-        List<String> values = getter.getHttpResponseHeader(request, response, name);
-        if (!values.isEmpty()) {
-          internalSet(attributes, responseAttributeKey(name), values);
-        }
+      int remainingLength = capturedResponseHeaders.maxLength();
+      for (int i = 0; i < capturedResponseHeaders.size() && remainingLength != 0; i++) {
+        List<String> values =
+            getter.getHttpResponseHeader(request, response, capturedResponseHeaders.name(i));
+        remainingLength = capturedResponseHeaders.capture(attributes, i, values, remainingLength);
       }
     }
 
     String errorType = null;
     if (statusCode != null && statusCode > 0) {
       if (statusCodeConverter.isError(statusCode)) {
-        errorType = statusCode.toString();
+        errorType = HttpAttributeValues.statusCodeString(statusCode);
       }
     } else {
       errorType = getter.getErrorType(request, response, error);
@@ -114,7 +113,8 @@ abstract class HttpCommonAttributesExtractor<
     }
     internalSet(attributes, ErrorAttributes.ERROR_TYPE, errorType);
 
-    String protocolName = lowercaseStr(getter.getNetworkProtocolName(request, response));
+    String protocolName =
+        HttpAttributeValues.protocolName(getter.getNetworkProtocolName(request, response));
     String protocolVersion = lowercaseStr(getter.getNetworkProtocolVersion(request, response));
 
     if (protocolVersion != null) {
@@ -5,10 +5,10 @@
 
 package io.opentelemetry.instrumentation.api.semconv.http;
 
+import static io.opentelemetry.instrumentation.api.semconv.http.HeaderParsingHelper.indexOfIgnoreCase;
 import static io.opentelemetry.instrumentation.api.semconv.http.HeaderParsingHelper.notFound;
 
 import io.opentelemetry.instrumentation.api.semconv.network.internal.AddressAndPortExtractor;
-import java.util.Locale;
 
 final class HttpServerAddressAndPortExtractor<REQUEST> implements AddressAndPortExtractor<REQUEST> {
 
@@ -43,7 +43,7 @@ final class HttpServerAddressAndPortExtractor<REQUEST> implements AddressAndPort
   }
 
   private static boolean extractFromForwardedHeader(AddressPortSink sink, String forwarded) {
-    int start = forwarded.toLowerCase(Locale.ROOT).indexOf("for=");
+    int start = indexOfIgnoreCase(forwarded, "for=");
     if (start < 0) {
       return false;
     }
@@ -28,6 +28,7 @@ import io.opentelemetry.context.propagation.TextMapGetter;
 import io.opentelemetry.instrumentation.api.internal.SchemaUrlProvider;
 import io.opentelemetry.instrumentation.api.internal.SpanKey;
 import io.opentelemetry.instrumentation.api.internal.SpanKeyProvider;
+import io.opentelemetry.instrumentation.api.internal.SpanOnlyAttributesProvider;
 import io.opentelemetry.sdk.common.InstrumentationScopeInfo;
 import io.opentelemetry.sdk.testing.junit5.OpenTelemetryExtension;
 import io.opentelemetry.sdk.trace.data.LinkData;
@@ -35,6 +36,7 @@ import io.opentelemetry.sdk.trace.data.StatusData;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -42,6 +44,7 @@ import javax.annotation.Nullable;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junitpioneer.jupiter.SetSystemProperty;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -138,6 +141,36 @@ class InstrumenterTest {
     }
   }
 
+  static class SpanOnlyAttributesExtractor
+      implements AttributesExtractor<Map<String, String>, Map<String, String>>,
+          SpanOnlyAttributesProvider {
+
+    final AtomicInteger invocations = new AtomicInteger();
+
+    @Override
+    public void onStart(
+        AttributesBuilder attributes, Context parentContext, Map<String, String> request) {
+      invocations.incrementAndGet();
+      attributes.put("req3", request.get("req3"));
+    }
+
+    @Override
+    public void onEnd(
+        AttributesBuilder attributes,
+        Context context,
+        Map<String, String> request,
+        Map<String, String> response,
+        @Nullable Throwable error) {
+      invocations.incrementAndGet();
+      attributes.put("resp3", response.get("resp3"));
+    }
+
+    @Override
+    public boolean internalIsSpanOnly() {
+      return true;
+    }
+  }
+
   static class LinksExtractor implements SpanLinksExtractor<Map<String, String>> {
 
     @Override
@@ -503,6 +536,167 @@ class InstrumenterTest {
     assertThat(Span.fromContext(endContext.get()).getSpanContext().isValid()).isTrue();
   }
 
+  @Test
+  @SetSystemProperty(
+      key = "otel.instrumentation.experimental.sampling-aware-attributes.enabled",
+      value = "true")
+  void samplingAwareAttributes_recording() {
+    SpanOnlyAttributesExtractor spanOnlyExtractor = new SpanOnlyAttributesExtractor();
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addAttributesExtractor(spanOnlyExtractor)
+            .addAttributesExtractor(new AttributesExtractor1())
+            .buildServerInstrumenter(new MapGetter());
+
+    Context context = instrumenter.start(Context.root(), REQUEST);
+    instrumenter.end(context, REQUEST, RESPONSE, null);
+
+    assertThat(spanOnlyExtractor.invocations).hasValue(2);
+    otelTesting
+        .assertTraces()
+        .hasTracesSatisfyingExactly(
+            trace ->
+                trace.hasSpansSatisfyingExactly(
+                    span ->
+                        span.hasName("span")
+                            .hasAttributesSatisfyingExactly(
+                                equalTo(AttributeKey.stringKey("req1"), "req1_value"),
+                                equalTo(AttributeKey.stringKey("req2"), "req2_value"),
+                                equalTo(AttributeKey.stringKey("req3"), "req3_value"),
+                                equalTo(AttributeKey.stringKey("resp1"), "resp1_value"),
+                                equalTo(AttributeKey.stringKey("resp2"), "resp2_value"),
+                                equalTo(AttributeKey.stringKey("resp3"), "resp3_value"))));
+  }
+
+  @Test
+  @SetSystemProperty(
+      key = "otel.instrumentation.experimental.sampling-aware-attributes.enabled",
+      value = "true")
+  void samplingAwareAttributes_notRecording() {
+    AtomicReference<Attributes> startAttributes = new AtomicReference<>();
+    AtomicReference<Attributes> endAttributes = new AtomicReference<>();
+    OperationListener operationListener =
+        new OperationListener() {
+          @Override
+          public Context onStart(Context context, Attributes attributes, long startNanos) {
+            startAttributes.set(attributes);
+            return context;
+          }
+
+          @Override
+          public void onEnd(Context context, Attributes attributes, long endNanos) {
+            endAttributes.set(attributes);
+          }
+        };
+
+    SpanOnlyAttributesExtractor spanOnlyExtractor = new SpanOnlyAttributesExtractor();
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addAttributesExtractor(spanOnlyExtractor)
+            .addAttributesExtractor(new AttributesExtractor1())
+            .addOperationListener(operationListener)
+            .buildInstrumenter();
+
+    // the default parent based sampler drops children of unsampled parents
+    Context parentContext =
+        Context.root()
+            .with(
+                Span.wrap(
+                    SpanContext.createFromRemoteParent(
+                        LINK_TRACE_ID,
+                        LINK_SPAN_ID,
+                        TraceFlags.getDefault(),
+                        TraceState.getDefault())));
+    Context context = instrumenter.start(parentContext, REQUEST);
+    assertThat(Span.fromContext(context).isRecording()).isFalse();
+    instrumenter.end(context, REQUEST, RESPONSE, null);
+
+    assertThat(spanOnlyExtractor.invocations).hasValue(0);
+    assertThat(startAttributes.get().asMap())
+        .containsOnly(
+            entry(AttributeKey.stringKey("req1"), "req1_value"),
+            entry(AttributeKey.stringKey("req2"), "req2_value"));
+    assertThat(endAttributes.get().asMap())
+        .containsOnly(
+            entry(AttributeKey.stringKey("resp1"), "resp1_value"),
+            entry(AttributeKey.stringKey("resp2"), "resp2_value"));
+    otelTesting.assertTraces().isEmpty();
+  }
+
+  @Test
+  @SetSystemProperty(
+      key = "otel.instrumentation.experimental.instrumenter-object-pooling.enabled",
+      value = "true")
+  void objectPooling() {
+    Map<String, Attributes> startAttributes = new HashMap<>();
+    Map<String, Attributes> endAttributes = new HashMap<>();
+    OperationListener operationListener =
+        new OperationListener() {
+          @Override
+          public Context onStart(Context context, Attributes attributes, long startNanos) {
+            startAttributes.put(attributes.get(AttributeKey.stringKey("req1")), attributes);
+            return context;
+          }
+
+          @Override
+          public void onEnd(Context context, Attributes attributes, long endNanos) {
+            // end attributes are reused, listeners must copy them
+            endAttributes.put(
+                attributes.get(AttributeKey.stringKey("resp1")),
+                attributes.toBuilder().build());
+          }
+        };
+
+    Instrumenter<Map<String, String>, Map<String, String>> instrumenter =
+        Instrumenter.<Map<String, String>, Map<String, String>>builder(
+                otelTesting.getOpenTelemetry(), "test", unused -> "span")
+            .addAttributesExtractor(new AttributesExtractor1())
+            .addOperationListener(operationListener)
+            .buildInstrumenter();
+
+    Map<String, String> otherRequest = new HashMap<>(REQUEST);
+    otherRequest.put("req1", "other_req1_value");
+    Map<String, String> otherResponse = new HashMap<>(RESPONSE);
+    otherResponse.put("resp1", "other_resp1_value");
+
+    Context context = instrumenter.start(Context.root(), REQUEST);
+    instrumenter.end(context, REQUEST, RESPONSE, null);
+    Context otherContext = instrumenter.start(Context.root(), otherRequest);
+    instrumenter.end(otherContext, otherRequest, otherResponse, null);
+
+    assertThat(startAttributes).hasSize(2);
+    assertThat(startAttributes.get("req1_value").asMap())
+        .containsOnly(
+            entry(AttributeKey.stringKey("req1"), "req1_value"),
+            entry(AttributeKey.stringKey("req2"), "req2_value"));
+    assertThat(endAttributes).hasSize(2);
+    assertThat(endAttributes.get("other_resp1_value").asMap())
+        .containsOnly(
+            entry(AttributeKey.stringKey("resp1"), "other_resp1_value"),
+            entry(AttributeKey.stringKey("resp2"), "resp2_value"));
+    otelTesting
+        .assertTraces()
+        .hasTracesSatisfyingExactly(
+            trace ->
+                trace.hasSpansSatisfyingExactly(
+                    span ->
+                        span.hasAttributesSatisfyingExactly(
+                            equalTo(AttributeKey.stringKey("req1"), "req1_value"),
+                            equalTo(AttributeKey.stringKey("req2"), "req2_value"),
+                            equalTo(AttributeKey.stringKey("resp1"), "resp1_value"),
+                            equalTo(AttributeKey.stringKey("resp2"), "resp2_value"))),
+            trace ->
+                trace.hasSpansSatisfyingExactly(
+                    span ->
+                        span.hasAttributesSatisfyingExactly(
+                            equalTo(AttributeKey.stringKey("req1"), "other_req1_value"),
+                            equalTo(AttributeKey.stringKey("req2"), "req2_value"),
+                            equalTo(AttributeKey.stringKey("resp1"), "other_resp1_value"),
+                            equalTo(AttributeKey.stringKey("resp2"), "resp2_value"))));
+  }
+
   @Test
   void shouldNotAddInvalidLink() {
     // given
@@ -0,0 +1,35 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.instrumenter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.AttributeKey;
+import org.junit.jupiter.api.Test;
+
+class OperationScratchTest {
+
+  @Test
+  void reusedAfterRelease() {
+    OperationScratch scratch = OperationScratch.acquire();
+    assertThat(scratch).isNotNull();
+    scratch.attributes().put(AttributeKey.stringKey("key"), "value");
+    scratch.release();
+
+    OperationScratch reused = OperationScratch.acquire();
+    assertThat(reused).isSameAs(scratch);
+    assertThat(reused.attributes()).isEmpty();
+    reused.release();
+  }
+
+  @Test
+  void nestedAcquireFallsBack() {
+    OperationScratch scratch = OperationScratch.acquire();
+    assertThat(scratch).isNotNull();
+    assertThat(OperationScratch.acquire()).isNull();
+    scratch.release();
+  }
+}
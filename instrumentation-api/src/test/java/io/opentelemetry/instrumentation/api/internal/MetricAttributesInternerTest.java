@@ -0,0 +1,67 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import org.junit.jupiter.api.Test;
+
+class MetricAttributesInternerTest {
+
+  private static final AttributeKey<String> METHOD = AttributeKey.stringKey("method");
+  private static final AttributeKey<Long> STATUS = AttributeKey.longKey("status");
+  private static final AttributeKey<String> ROUTE = AttributeKey.stringKey("route");
+  private static final AttributeKey<String> PATH = AttributeKey.stringKey("path");
+
+  private final MetricAttributesInterner interner =
+      new MetricAttributesInterner(asList(METHOD, STATUS, ROUTE));
+
+  @Test
+  void keepsOnlyTheGivenKeys() {
+    Attributes start = Attributes.of(METHOD, "GET", PATH, "/users/1");
+    Attributes end = Attributes.of(STATUS, 200L, ROUTE, "/users/{id}");
+
+    assertThat(interner.intern(start, end))
+        .isEqualTo(Attributes.of(METHOD, "GET", STATUS, 200L, ROUTE, "/users/{id}"));
+  }
+
+  @Test
+  void endAttributesTakePrecedence() {
+    Attributes start = Attributes.of(METHOD, "GET", ROUTE, "/users");
+    Attributes end = Attributes.of(ROUTE, "/users/{id}");
+
+    assertThat(interner.intern(start, end))
+        .isEqualTo(Attributes.of(METHOD, "GET", ROUTE, "/users/{id}"));
+  }
+
+  @Test
+  void returnsSameInstanceForSameValues() {
+    Attributes first =
+        interner.intern(
+            Attributes.of(METHOD, "GET", PATH, "/users/1"), Attributes.of(STATUS, 200L));
+    Attributes second =
+        interner.intern(
+            Attributes.of(METHOD, "GET", PATH, "/users/2"), Attributes.of(STATUS, 200L));
+    Attributes other =
+        interner.intern(
+            Attributes.of(METHOD, "GET", PATH, "/users/3"), Attributes.of(STATUS, 404L));
+
+    assertThat(second).isSameAs(first);
+    assertThat(other).isNotEqualTo(first);
+  }
+
+  @Test
+  void mergesAllAttributesWithoutInterner() {
+    Attributes start = Attributes.of(METHOD, "GET", PATH, "/users/1");
+    Attributes end = Attributes.of(STATUS, 200L);
+
+    assertThat(MetricAttributesInterner.merge(null, start, end))
+        .isEqualTo(Attributes.of(METHOD, "GET", PATH, "/users/1", STATUS, 200L));
+  }
+}
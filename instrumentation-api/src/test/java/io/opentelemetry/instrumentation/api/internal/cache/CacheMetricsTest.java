@@ -0,0 +1,106 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.internal.cache;
+
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.assertThat;
+import static io.opentelemetry.sdk.testing.assertj.OpenTelemetryAssertions.equalTo;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.testing.exporter.InMemoryMetricReader;
+import org.junit.jupiter.api.Test;
+
+class CacheMetricsTest {
+
+  private static final AttributeKey<String> CACHE_NAME = AttributeKey.stringKey("cache.name");
+  private static final AttributeKey<String> CACHE_RESULT = AttributeKey.stringKey("cache.result");
+
+  @Test
+  void disabledByDefault() {
+    assertThat(CacheMetrics.isEnabled()).isFalse();
+    assertThat(Cache.bounded("test", 1)).isInstanceOf(MapBackedCache.class);
+    assertThat(Cache.weak("test")).isInstanceOf(WeakLockFreeCache.class);
+  }
+
+  @Test
+  void recordsCacheMetrics() {
+    InMemoryMetricReader metricReader = InMemoryMetricReader.create();
+    SdkMeterProvider meterProvider =
+        SdkMeterProvider.builder().registerMetricReader(metricReader).build();
+    CacheMetrics.registerObservers(
+        OpenTelemetrySdk.builder().setMeterProvider(meterProvider).build());
+
+    Cache<String, String> cache;
+    CacheMetrics.setEnabled(true);
+    try {
+      cache = Cache.bounded("test-cache", 1);
+    } finally {
+      CacheMetrics.setEnabled(false);
+    }
+    assertThat(cache).isInstanceOf(MeteredCache.class);
+    cache.put("bear", "roar");
+    assertThat(cache.get("bear")).isEqualTo("roar");
+    assertThat(cache.get("cat")).isNull();
+    assertThat(cache.computeIfAbsent("cat", unused -> "meow")).isEqualTo("meow");
+    assertThat(cache.computeIfAbsent("cat", unused -> "purr")).isEqualTo("meow");
+
+    assertThat(metricReader.collectAllMetrics())
+        .satisfiesExactlyInAnyOrder(
+            metric ->
+                assertThat(metric)
+                    .hasName("otel.instrumentation.cache.gets")
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.isMonotonic()
+                                .hasPointsSatisfying(
+                                    point ->
+                                        point
+                                            .hasValue(2)
+                                            .hasAttributesSatisfyingExactly(
+                                                equalTo(CACHE_NAME, "test-cache"),
+                                                equalTo(CACHE_RESULT, "hit")),
+                                    point ->
+                                        point
+                                            .hasValue(2)
+                                            .hasAttributesSatisfyingExactly(
+                                                equalTo(CACHE_NAME, "test-cache"),
+                                                equalTo(CACHE_RESULT, "miss")))),
+            metric ->
+                assertThat(metric)
+                    .hasName("otel.instrumentation.cache.evictions")
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.hasPointsSatisfying(
+                                point ->
+                                    point
+                                        .hasValue(1)
+                                        .hasAttributesSatisfyingExactly(
+                                            equalTo(CACHE_NAME, "test-cache")))),
+            metric ->
+                assertThat(metric)
+                    .hasName("otel.instrumentation.cache.size")
+                    .hasLongSumSatisfying(
+                        sum ->
+                            sum.isNotMonotonic()
+                                .hasPointsSatisfying(
+                                    point ->
+                                        point
+                                            .hasValue(1)
+                                            .hasAttributesSatisfyingExactly(
+                                                equalTo(CACHE_NAME, "test-cache")))),
+            metric ->
+                assertThat(metric)
+                    .hasName("otel.instrumentation.cache.load.time")
+                    .hasUnit("s")
+                    .hasDoubleSumSatisfying(
+                        sum ->
+                            sum.hasPointsSatisfying(
+                                point ->
+                                    point.hasAttributesSatisfyingExactly(
+                                        equalTo(CACHE_NAME, "test-cache")))));
+  }
+}
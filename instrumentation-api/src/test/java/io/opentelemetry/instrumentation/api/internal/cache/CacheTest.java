@@ -35,6 +35,56 @@ class CacheTest {
       assertThat(mapBackedCache.size()).isEqualTo(1);
       assertThat(cache.computeIfAbsent("cat", unused -> "purr")).isEqualTo("purr");
     }
+
+    @Test
+    void boundedTinyLfu() {
+      Cache<String, String> cache = Cache.boundedTinyLfu(1);
+
+      assertThat(cache.computeIfAbsent("bear", unused -> "roar")).isEqualTo("roar");
+      cache.remove("bear");
+
+      TinyLfuCache<?, ?> tinyLfuCache = ((TinyLfuCache<?, ?>) cache);
+      assertThat(cache.computeIfAbsent("cat", unused -> "meow")).isEqualTo("meow");
+      assertThat(tinyLfuCache.size()).isEqualTo(1);
+
+      assertThat(cache.computeIfAbsent("cat", unused -> "bark")).isEqualTo("meow");
+      assertThat(tinyLfuCache.size()).isEqualTo(1);
+
+      cache.put("dog", "bark");
+      assertThat(cache.get("dog")).isEqualTo("bark");
+      assertThat(tinyLfuCache.size()).isEqualTo(1);
+      assertThat(cache.computeIfAbsent("cat", unused -> "purr")).isEqualTo("purr");
+    }
+
+    @Test
+    void boundedTinyLfu_keepsFrequentlyUsedEntries() {
+      Cache<Integer, String> cache = Cache.boundedTinyLfu(100);
+
+      for (int i = 0; i < 100; i++) {
+        cache.put(i, "hot");
+      }
+      for (int round = 0; round < 20; round++) {
+        for (int i = 0; i < 100; i++) {
+          cache.get(i);
+        }
+      }
+      // keys that are used only once must not flush the frequently used ones, even though an LRU
+      // cache of the same size would have evicted all of them
+      for (int i = 100; i < 10_000; i++) {
+        cache.put(i, "cold");
+        cache.get(i % 100);
+      }
+
+      TinyLfuCache<?, ?> tinyLfuCache = ((TinyLfuCache<?, ?>) cache);
+      assertThat(tinyLfuCache.size()).isLessThanOrEqualTo(100);
+      int hits = 0;
+      for (int i = 0; i < 100; i++) {
+        if (cache.get(i) != null) {
+          hits++;
+        }
+      }
+      assertThat(hits).isGreaterThanOrEqualTo(90);
+    }
   }
 
   @Nested
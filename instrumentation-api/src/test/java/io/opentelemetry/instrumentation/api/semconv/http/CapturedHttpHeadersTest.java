@@ -0,0 +1,59 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.semconv.http;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.common.AttributesBuilder;
+import org.junit.jupiter.api.Test;
+
+class CapturedHttpHeadersTest {
+
+  @Test
+  void resolvesNamesAndKeys() {
+    CapturedHttpHeaders headers =
+        new CapturedHttpHeaders("request", asList("X-Custom", "accept"), -1);
+    AttributesBuilder attributes = Attributes.builder();
+
+    assertThat(headers.size()).isEqualTo(2);
+    assertThat(headers.name(0)).isEqualTo("x-custom");
+    assertThat(headers.capture(attributes, 0, singletonList("a"), -1)).isEqualTo(-1);
+    assertThat(headers.capture(attributes, 1, emptyList(), -1)).isEqualTo(-1);
+    assertThat(attributes.build())
+        .isEqualTo(
+            Attributes.of(
+                AttributeKey.stringArrayKey("http.request.header.x-custom"), singletonList("a")));
+  }
+
+  @Test
+  void enforcesMaxLength() {
+    CapturedHttpHeaders headers =
+        new CapturedHttpHeaders("response", asList("first", "second", "third"), 10);
+    AttributesBuilder attributes = Attributes.builder();
+
+    int remainingLength = headers.maxLength();
+    remainingLength = headers.capture(attributes, 0, asList("abc", "def"), remainingLength);
+    assertThat(remainingLength).isEqualTo(4);
+    // doesn't fit, skipped
+    remainingLength = headers.capture(attributes, 1, singletonList("12345"), remainingLength);
+    assertThat(remainingLength).isEqualTo(4);
+    remainingLength = headers.capture(attributes, 2, singletonList("1234"), remainingLength);
+    assertThat(remainingLength).isEqualTo(0);
+
+    assertThat(attributes.build())
+        .isEqualTo(
+            Attributes.of(
+                AttributeKey.stringArrayKey("http.response.header.first"),
+                asList("abc", "def"),
+                AttributeKey.stringArrayKey("http.response.header.third"),
+                singletonList("1234")));
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.semconv.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.instrumentation.api.semconv.network.internal.AddressAndPort;
+import java.util.Locale;
+import java.util.Random;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+
+class HeaderParsingHelperTest {
+
+  private static final String HEADER_CHARS = "0123456789forHOSTprotFOR=;,:\"[].- ";
+
+  @Test
+  void indexOfIgnoreCase() {
+    assertThat(HeaderParsingHelper.indexOfIgnoreCase("For=1.2.3.4", "for=")).isEqualTo(0);
+    assertThat(HeaderParsingHelper.indexOfIgnoreCase("proto=http;HOST=a", "host=")).isEqualTo(11);
+    assertThat(HeaderParsingHelper.indexOfIgnoreCase("host", "host=")).isEqualTo(-1);
+    assertThat(HeaderParsingHelper.indexOfIgnoreCase("", "for=")).isEqualTo(-1);
+  }
+
+  @Test
+  void indexOfIgnoreCaseMatchesLowercaseCopy() {
+    Random random = new Random(0);
+    for (int i = 0; i < 100_000; i++) {
+      String header = randomHeader(random);
+      for (String token : new String[] {"for=", "host=", "proto="}) {
+        assertThat(HeaderParsingHelper.indexOfIgnoreCase(header, token))
+            .as(header)
+            .isEqualTo(header.toLowerCase(Locale.ROOT).indexOf(token));
+      }
+    }
+  }
+
+  @Test
+  void setPort() {
+    assertThat(port("host:8080", 5, 9)).isEqualTo(8080);
+    assertThat(port("host:", 5, 5)).isNull();
+    assertThat(port("host:port", 5, 9)).isNull();
+    assertThat(port("host:-1", 5, 7)).isNull();
+    assertThat(port("host:2147483647", 5, 15)).isEqualTo(Integer.MAX_VALUE);
+    assertThat(port("host:2147483648", 5, 15)).isNull();
+    assertThat(port("host:99999999999999999999", 5, 25)).isNull();
+  }
+
+  @Test
+  void setPortMatchesParseInt() {
+    Random random = new Random(0);
+    for (int i = 0; i < 100_000; i++) {
+      String header = randomHeader(random);
+      int start = random.nextInt(header.length() + 1);
+      int end = start + random.nextInt(header.length() - start + 1);
+
+      assertThat(port(header, start, end)).as(header).isEqualTo(parseInt(header, start, end));
+    }
+  }
+
+  @Nullable
+  private static Integer port(String header, int start, int end) {
+    AddressAndPort sink = new AddressAndPort();
+    HeaderParsingHelper.setPort(sink, header, start, end);
+    return sink.getPort();
+  }
+
+  @Nullable
+  private static Integer parseInt(String header, int start, int end) {
+    String value = header.substring(start, end);
+    // signs are not a valid part of a port
+    if (value.isEmpty() || value.charAt(0) == '-' || value.charAt(0) == '+') {
+      return null;
+    }
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static String randomHeader(Random random) {
+    StringBuilder header = new StringBuilder();
+    int length = random.nextInt(24);
+    for (int i = 0; i < length; i++) {
+      header.append(HEADER_CHARS.charAt(random.nextInt(HEADER_CHARS.length())));
+    }
+    return header.toString();
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.api.semconv.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class HttpAttributeValuesTest {
+
+  @Test
+  void statusCode() {
+    assertThat(HttpAttributeValues.statusCode(200)).isEqualTo(200L);
+    assertThat(HttpAttributeValues.statusCode(200)).isSameAs(HttpAttributeValues.statusCode(200));
+    assertThat(HttpAttributeValues.statusCode(599)).isEqualTo(599L);
+    assertThat(HttpAttributeValues.statusCode(600)).isEqualTo(600L);
+    assertThat(HttpAttributeValues.statusCode(99)).isEqualTo(99L);
+  }
+
+  @Test
+  void statusCodeString() {
+    assertThat(HttpAttributeValues.statusCodeString(500)).isEqualTo("500");
+    assertThat(HttpAttributeValues.statusCodeString(500))
+        .isSameAs(HttpAttributeValues.statusCodeString(500));
+    assertThat(HttpAttributeValues.statusCodeString(1000)).isEqualTo("1000");
+  }
+
+  @Test
+  void protocol() {
+    assertThat(HttpAttributeValues.protocolName("HTTP")).isEqualTo("http");
+    assertThat(HttpAttributeValues.protocolName("SPDY")).isEqualTo("spdy");
+    assertThat(HttpAttributeValues.protocolName(null)).isNull();
+  }
+
+  @Test
+  void scheme() {
+    assertThat(HttpAttributeValues.scheme("proto=https;", 6, 11)).isEqualTo("https");
+    assertThat(HttpAttributeValues.scheme("proto=http", 6, 10)).isEqualTo("http");
+    assertThat(HttpAttributeValues.scheme("proto=HTTP", 6, 10)).isEqualTo("HTTP");
+    assertThat(HttpAttributeValues.scheme("proto=wss", 6, 9)).isEqualTo("wss");
+  }
+}
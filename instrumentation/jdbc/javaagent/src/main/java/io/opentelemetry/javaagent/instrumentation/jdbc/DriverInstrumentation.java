@@ -12,7 +12,6 @@ import static net.bytebuddy.matcher.ElementMatchers.named;
 import static net.bytebuddy.matcher.ElementMatchers.returns;
 import static net.bytebuddy.matcher.ElementMatchers.takesArgument;
 
-import io.opentelemetry.instrumentation.jdbc.internal.JdbcConnectionUrlParser;
 import io.opentelemetry.instrumentation.jdbc.internal.JdbcData;
 import io.opentelemetry.javaagent.bootstrap.jdbc.DbInfo;
 import io.opentelemetry.javaagent.extension.instrumentation.TypeInstrumentation;
@@ -57,8 +56,8 @@ public class DriverInstrumentation implements TypeInstrumentation {
         // Exception was probably thrown.
         return;
       }
-      DbInfo dbInfo = JdbcConnectionUrlParser.parse(url, props);
-      JdbcData.connectionInfo.set(connection, JdbcData.intern(dbInfo));
+      DbInfo dbInfo = JdbcData.parseDbInfo(url, props);
+      JdbcData.connectionInfo.set(connection, dbInfo);
     }
   }
 }
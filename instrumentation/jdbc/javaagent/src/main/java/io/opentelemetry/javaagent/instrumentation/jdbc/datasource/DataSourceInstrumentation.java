@@ -8,7 +8,9 @@ package io.opentelemetry.javaagent.instrumentation.jdbc.datasource;
 import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.implementsInterface;
 import static io.opentelemetry.javaagent.instrumentation.jdbc.JdbcSingletons.dataSourceInstrumenter;
 import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.not;
 import static net.bytebuddy.matcher.ElementMatchers.returns;
+import static net.bytebuddy.matcher.ElementMatchers.takesArguments;
 
 import io.opentelemetry.context.Context;
 import io.opentelemetry.context.Scope;
@@ -33,8 +35,15 @@ public class DataSourceInstrumentation implements TypeInstrumentation {
   @Override
   public void transform(TypeTransformer transformer) {
     transformer.applyAdviceToMethod(
-        named("getConnection").and(returns(named("java.sql.Connection"))),
+        named("getConnection").and(takesArguments(0)).and(returns(named("java.sql.Connection"))),
         DataSourceInstrumentation.class.getName() + "$GetConnectionAdvice");
+    // connections obtained with other credentials, e.g. getConnection(user, password), may differ
+    // in db.user, so their db info is not cached per data source
+    transformer.applyAdviceToMethod(
+        named("getConnection")
+            .and(not(takesArguments(0)))
+            .and(returns(named("java.sql.Connection"))),
+        DataSourceInstrumentation.class.getName() + "$GetConnectionWithCredentialsAdvice");
   }
 
   @SuppressWarnings("unused")
@@ -58,6 +67,47 @@ public class DataSourceInstrumentation implements TypeInstrumentation {
       }
     }
 
+    @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
+    public static void stopSpan(
+        @Advice.This DataSource ds,
+        @Advice.Return Connection connection,
+        @Advice.Thrown Throwable throwable,
+        @Advice.Local("otelContext") Context context,
+        @Advice.Local("otelScope") Scope scope) {
+      if (scope == null) {
+        return;
+      }
+      scope.close();
+      DbInfo dbInfo = null;
+      Connection realConnection = JdbcUtils.unwrapConnection(connection);
+      if (realConnection != null) {
+        dbInfo = JdbcUtils.extractDbInfo(realConnection, ds);
+      }
+      dataSourceInstrumenter().end(context, ds, dbInfo, throwable);
+    }
+  }
+
+  @SuppressWarnings("unused")
+  public static class GetConnectionWithCredentialsAdvice {
+
+    @Advice.OnMethodEnter(suppress = Throwable.class)
+    public static void start(
+        @Advice.This DataSource ds,
+        @Advice.Local("otelContext") Context context,
+        @Advice.Local("otelScope") Scope scope) {
+      Context parentContext = Java8BytecodeBridge.currentContext();
+      if (!Java8BytecodeBridge.spanFromContext(parentContext).getSpanContext().isValid()) {
+        // this instrumentation is already very noisy, and calls to getConnection outside of an
+        // existing trace do not tend to be very interesting
+        return;
+      }
+
+      if (dataSourceInstrumenter().shouldStart(parentContext, ds)) {
+        context = dataSourceInstrumenter().start(parentContext, ds);
+        scope = context.makeCurrent();
+      }
+    }
+
     @Advice.OnMethodExit(onThrowable = Throwable.class, suppress = Throwable.class)
     public static void stopSpan(
         @Advice.This DataSource ds,
@@ -9,6 +9,7 @@ import static io.opentelemetry.instrumentation.jdbc.internal.JdbcUtils.connectio
 import static io.opentelemetry.instrumentation.jdbc.internal.JdbcUtils.extractDbInfo;
 
 import com.google.auto.value.AutoValue;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfoHolder;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -24,7 +25,16 @@ public abstract class DbRequest {
 
   @Nullable
   public static DbRequest create(PreparedStatement statement) {
-    return create(statement, JdbcData.preparedStatement.get(statement));
+    JdbcData.PreparedQuery query = JdbcData.preparedStatement.get(statement);
+    if (query == null) {
+      return null;
+    }
+    Connection connection = connectionFromStatement(statement);
+    if (connection == null) {
+      return null;
+    }
+
+    return create(extractDbInfo(connection), query.getSql(), query.getSanitizedQueryHolder());
   }
 
   @Nullable
@@ -38,10 +48,19 @@ public abstract class DbRequest {
   }
 
   public static DbRequest create(DbInfo dbInfo, String queryText) {
-    return new AutoValue_DbRequest(dbInfo, queryText);
+    return create(dbInfo, queryText, null);
+  }
+
+  public static DbRequest create(
+      DbInfo dbInfo, String queryText, @Nullable SqlStatementInfoHolder sanitizedQueryHolder) {
+    return new AutoValue_DbRequest(dbInfo, queryText, sanitizedQueryHolder);
   }
 
   public abstract DbInfo getDbInfo();
 
   public abstract String getQueryText();
+
+  /** Returns the holder of the sanitized query text of a prepared statement. */
+  @Nullable
+  public abstract SqlStatementInfoHolder getSanitizedQueryHolder();
 }
@@ -6,6 +6,7 @@
 package io.opentelemetry.instrumentation.jdbc.internal;
 
 import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlClientAttributesGetter;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfoHolder;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
 import javax.annotation.Nullable;
 
@@ -47,4 +48,10 @@ public final class JdbcAttributesGetter implements SqlClientAttributesGetter<DbR
   public String getRawQueryText(DbRequest request) {
     return request.getQueryText();
   }
+
+  @Nullable
+  @Override
+  public SqlStatementInfoHolder getSanitizedQueryHolder(DbRequest request) {
+    return request.getSanitizedQueryHolder();
+  }
 }
@@ -5,27 +5,42 @@
 
 package io.opentelemetry.instrumentation.jdbc.internal;
 
+import com.google.auto.value.AutoValue;
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfoHolder;
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.instrumentation.api.util.VirtualField;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
-import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.Properties;
+import javax.annotation.Nullable;
+import javax.sql.DataSource;
 
 /**
- * Holds info associated with JDBC connections and prepared statements.
+ * Holds info associated with JDBC data sources, connections and prepared statements.
  *
  * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
  * at any time.
  */
 public final class JdbcData {
 
-  private static final Map<DbInfo, WeakReference<DbInfo>> dbInfos = new WeakHashMap<>();
+  // the connection properties that are used by JdbcConnectionUrlParser
+  private static final String[] STANDARD_PROPERTIES = {
+    "user", "databasename", "databaseName", "servername", "serverName", "portnumber", "portNumber"
+  };
+
+  private static final WeakInterner<DbInfo> dbInfos = new WeakInterner<>();
+  private static final Cache<ConnectionUrlKey, DbInfo> dbInfoByUrl =
+      Cache.bounded("jdbc-connection-url-db-info", 100);
+  public static final VirtualField<DataSource, DbInfo> dataSourceInfo =
+      VirtualField.find(DataSource.class, DbInfo.class);
   public static final VirtualField<Connection, DbInfo> connectionInfo =
       VirtualField.find(Connection.class, DbInfo.class);
-  public static final VirtualField<PreparedStatement, String> preparedStatement =
-      VirtualField.find(PreparedStatement.class, String.class);
+  public static final VirtualField<PreparedStatement, PreparedQuery> preparedStatement =
+      VirtualField.find(PreparedStatement.class, PreparedQuery.class);
 
   private JdbcData() {}
 
@@ -38,16 +53,67 @@ public final class JdbcData {
    *     and a different instance later if the original interned instance was garbage collected.
    */
   public static DbInfo intern(DbInfo dbInfo) {
-    synchronized (dbInfos) {
-      WeakReference<DbInfo> reference = dbInfos.get(dbInfo);
-      if (reference != null) {
-        DbInfo result = reference.get();
-        if (result != null) {
-          return result;
+    return dbInfos.intern(dbInfo);
+  }
+
+  /**
+   * Returns the interned db info for a connection url and connection properties. All connections
+   * of a pool are opened with the same url and properties, so the url is parsed once per pool
+   * rather than once per connection.
+   */
+  public static DbInfo parseDbInfo(@Nullable String url, @Nullable Properties props) {
+    if (url == null) {
+      return DbInfo.DEFAULT;
+    }
+    return dbInfoByUrl.computeIfAbsent(
+        ConnectionUrlKey.create(url, props),
+        key -> intern(JdbcConnectionUrlParser.parse(url, props)));
+  }
+
+  /**
+   * The sql of a prepared statement, and its sanitized form once the statement was executed with
+   * tracing.
+   */
+  public static final class PreparedQuery {
+
+    private final String sql;
+    private final SqlStatementInfoHolder sanitizedQueryHolder = SqlStatementInfoHolder.create();
+
+    public PreparedQuery(String sql) {
+      this.sql = sql;
+    }
+
+    public String getSql() {
+      return sql;
+    }
+
+    public SqlStatementInfoHolder getSanitizedQueryHolder() {
+      return sanitizedQueryHolder;
+    }
+  }
+
+  @AutoValue
+  abstract static class ConnectionUrlKey {
+
+    static ConnectionUrlKey create(String url, @Nullable Properties props) {
+      // only keep the properties that affect the parsed db info, and not e.g. the password
+      Map<String, Object> standardProperties = Collections.emptyMap();
+      if (props != null && !props.isEmpty()) {
+        for (String name : STANDARD_PROPERTIES) {
+          Object value = props.get(name);
+          if (value != null) {
+            if (standardProperties.isEmpty()) {
+              standardProperties = new HashMap<>();
+            }
+            standardProperties.put(name, value);
+          }
         }
       }
-      dbInfos.put(dbInfo, new WeakReference<>(dbInfo));
-      return dbInfo;
+      return new AutoValue_JdbcData_ConnectionUrlKey(url, standardProperties);
     }
+
+    abstract String getUrl();
+
+    abstract Map<String, Object> getStandardProperties();
   }
 }
@@ -15,6 +15,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
+import javax.sql.DataSource;
 
 /**
  * This class is internal and is hence not for public use. Its APIs are unstable and can change at
@@ -85,7 +86,28 @@ public final class JdbcUtils {
     DbInfo dbInfo = JdbcData.connectionInfo.get(connection);
     if (dbInfo == null) {
       dbInfo = computeDbInfo(connection);
-      JdbcData.connectionInfo.set(connection, JdbcData.intern(dbInfo));
+      JdbcData.connectionInfo.set(connection, dbInfo);
+    }
+    return dbInfo;
+  }
+
+  /**
+   * Returns the db info of a connection that was obtained from {@link DataSource#getConnection()}
+   * of the given data source. These connections all point at the same database with the same user,
+   * so the db info is computed from the first connection and reused for the following ones, without
+   * calling {@link Connection#getMetaData()} again.
+   */
+  public static DbInfo extractDbInfo(Connection connection, DataSource dataSource) {
+    DbInfo dbInfo = JdbcData.connectionInfo.get(connection);
+    if (dbInfo == null) {
+      // when a data source delegates to another data source, e.g. a routing data source, the
+      // innermost one is the first to see the connection, so the outer ones never cache db info
+      dbInfo = JdbcData.dataSourceInfo.get(dataSource);
+      if (dbInfo == null) {
+        dbInfo = computeDbInfo(connection);
+        JdbcData.dataSourceInfo.set(dataSource, dbInfo);
+      }
+      JdbcData.connectionInfo.set(connection, dbInfo);
     }
     return dbInfo;
   }
@@ -106,10 +128,10 @@ public final class JdbcUtils {
       String url = metaData.getURL();
       if (url != null) {
         try {
-          return JdbcConnectionUrlParser.parse(url, connection.getClientInfo());
+          return JdbcData.parseDbInfo(url, connection.getClientInfo());
         } catch (Throwable ex) {
           // getClientInfo is likely not allowed.
-          return JdbcConnectionUrlParser.parse(url, null);
+          return JdbcData.parseDbInfo(url, null);
         }
       } else {
         return DbInfo.DEFAULT;
@@ -20,6 +20,7 @@
 
 package io.opentelemetry.instrumentation.jdbc.internal;
 
+import io.opentelemetry.instrumentation.api.incubator.semconv.db.SqlStatementInfoHolder;
 import io.opentelemetry.instrumentation.api.instrumenter.Instrumenter;
 import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
 import java.io.InputStream;
@@ -50,6 +51,8 @@ import java.util.Calendar;
 public class OpenTelemetryPreparedStatement<S extends PreparedStatement>
     extends OpenTelemetryStatement<S> implements PreparedStatement {
 
+  private final DbRequest request;
+
   public OpenTelemetryPreparedStatement(
       S delegate,
       OpenTelemetryConnection connection,
@@ -57,21 +60,23 @@ public class OpenTelemetryPreparedStatement<S extends PreparedStatement>
       String query,
       Instrumenter<DbRequest, Void> instrumenter) {
     super(delegate, connection, dbInfo, query, instrumenter);
+    // the statement is sanitized on its first traced execution instead of on every execution
+    this.request = DbRequest.create(dbInfo, query, SqlStatementInfoHolder.create());
   }
 
   @Override
   public ResultSet executeQuery() throws SQLException {
-    return wrapCall(query, delegate::executeQuery);
+    return wrapCall(request, delegate::executeQuery);
   }
 
   @Override
   public int executeUpdate() throws SQLException {
-    return wrapCall(query, delegate::executeUpdate);
+    return wrapCall(request, delegate::executeUpdate);
   }
 
   @Override
   public boolean execute() throws SQLException {
-    return wrapCall(query, delegate::execute);
+    return wrapCall(request, delegate::execute);
   }
 
   @SuppressWarnings("UngroupedOverloads")
@@ -0,0 +1,82 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jdbc.internal;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * Interns values without holding on to them: once an interned value is no longer referenced
+ * anywhere else it can be garbage collected. Unlike a synchronized {@link java.util.WeakHashMap}
+ * this never blocks, so that threads opening connections concurrently don't contend on a single
+ * monitor.
+ */
+final class WeakInterner<T> {
+
+  private final ConcurrentHashMap<WeakKey<T>, WeakKey<T>> map = new ConcurrentHashMap<>();
+  private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+  T intern(T value) {
+    expungeStaleEntries();
+    WeakKey<T> key = new WeakKey<>(value, queue);
+    while (true) {
+      WeakKey<T> existing = map.putIfAbsent(key, key);
+      if (existing == null) {
+        return value;
+      }
+      T result = existing.get();
+      if (result != null) {
+        return result;
+      }
+      // the interned value was collected but its entry wasn't expunged yet
+      map.remove(existing, existing);
+    }
+  }
+
+  // Visible for testing
+  int size() {
+    expungeStaleEntries();
+    return map.size();
+  }
+
+  private void expungeStaleEntries() {
+    Reference<? extends T> reference;
+    while ((reference = queue.poll()) != null) {
+      map.remove(reference, reference);
+    }
+  }
+
+  private static final class WeakKey<T> extends WeakReference<T> {
+
+    private final int hashCode;
+
+    WeakKey(T referent, ReferenceQueue<T> queue) {
+      super(referent, queue);
+      hashCode = referent.hashCode();
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof WeakKey)) {
+        return false;
+      }
+      // a collected key is only equal to itself
+      Object referent = get();
+      return referent != null && referent.equals(((WeakKey<?>) obj).get());
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
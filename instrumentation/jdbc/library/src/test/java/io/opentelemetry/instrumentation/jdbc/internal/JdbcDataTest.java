@@ -0,0 +1,68 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.instrumentation.jdbc.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import io.opentelemetry.instrumentation.jdbc.internal.dbinfo.DbInfo;
+import java.util.Properties;
+import org.junit.jupiter.api.Test;
+
+class JdbcDataTest {
+
+  @Test
+  void internReturnsSameInstanceForEqualDbInfos() {
+    DbInfo first = DbInfo.builder().system("postgresql").host("intern-host").port(5432).build();
+    DbInfo second = DbInfo.builder().system("postgresql").host("intern-host").port(5432).build();
+
+    assertThat(JdbcData.intern(first)).isSameAs(first);
+    assertThat(JdbcData.intern(second)).isSameAs(first);
+  }
+
+  @Test
+  void parseDbInfoReturnsSameInstanceForSameUrlAndProperties() {
+    String url = "jdbc:postgresql://parse-host:5432/db";
+    Properties props = new Properties();
+    props.setProperty("user", "postgres");
+    props.setProperty("password", "secret");
+    Properties otherPassword = new Properties();
+    otherPassword.setProperty("user", "postgres");
+    otherPassword.setProperty("password", "other");
+
+    DbInfo dbInfo = JdbcData.parseDbInfo(url, props);
+
+    assertThat(dbInfo).isEqualTo(JdbcConnectionUrlParser.parse(url, props));
+    assertThat(JdbcData.parseDbInfo(url, props)).isSameAs(dbInfo);
+    assertThat(JdbcData.parseDbInfo(url, otherPassword)).isSameAs(dbInfo);
+  }
+
+  @Test
+  void parseDbInfoTakesStandardPropertiesIntoAccount() {
+    String url = "jdbc:postgresql://parse-host:5432/db";
+    Properties props = new Properties();
+    props.setProperty("user", "first");
+    Properties otherUser = new Properties();
+    otherUser.setProperty("user", "second");
+
+    assertThat(JdbcData.parseDbInfo(url, props).getUser()).isEqualTo("first");
+    assertThat(JdbcData.parseDbInfo(url, otherUser).getUser()).isEqualTo("second");
+    assertThat(JdbcData.parseDbInfo(url, null).getUser()).isNull();
+  }
+
+  @Test
+  void weakInternerDropsCollectedValues() {
+    WeakInterner<String> interner = new WeakInterner<>();
+    String value = interner.intern(new String("value"));
+    assertThat(interner.intern(new String("value"))).isSameAs(value);
+    assertThat(interner.size()).isEqualTo(1);
+
+    value = null;
+    System.gc();
+    // Wait for GC to be reflected.
+    await().untilAsserted(() -> assertThat(interner.size()).isZero());
+  }
+}
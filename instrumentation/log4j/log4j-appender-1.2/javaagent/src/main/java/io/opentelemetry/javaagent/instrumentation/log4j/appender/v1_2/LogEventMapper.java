@@ -31,7 +31,8 @@ import org.apache.log4j.Priority;
 
 public final class LogEventMapper {
 
-  private static final Cache<String, AttributeKey<String>> mdcAttributeKeys = Cache.bounded(100);
+  private static final Cache<String, AttributeKey<String>> mdcAttributeKeys =
+      Cache.bounded("log4j-mdc-attribute-keys", 100);
 
   public static final LogEventMapper INSTANCE = new LogEventMapper();
 
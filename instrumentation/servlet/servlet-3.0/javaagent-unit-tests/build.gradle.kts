@@ -1,9 +1,25 @@
+import net.ltgt.gradle.errorprone.errorprone
+
 plugins {
   id("otel.java-conventions")
+  id("otel.jmh-conventions")
 }
 
 dependencies {
   testImplementation("javax.servlet:javax.servlet-api:3.0.1")
   testImplementation(project(":instrumentation:servlet:servlet-3.0:javaagent"))
   testImplementation(project(":instrumentation:servlet:servlet-common:bootstrap"))
+
+  jmhImplementation("javax.servlet:javax.servlet-api:3.0.1")
+  jmhImplementation(project(":instrumentation:servlet:servlet-3.0:javaagent"))
+  jmhImplementation(project(":instrumentation:servlet:servlet-common:bootstrap"))
+}
+
+tasks {
+  // TODO this should live in jmh-conventions
+  named<JavaCompile>("jmhCompileGeneratedClasses") {
+    options.errorprone {
+      isEnabled.set(false)
+    }
+  }
 }
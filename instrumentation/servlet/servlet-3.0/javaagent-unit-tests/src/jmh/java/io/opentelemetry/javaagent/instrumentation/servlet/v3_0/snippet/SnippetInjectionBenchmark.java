@@ -0,0 +1,147 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.instrumentation.servlet.v3_0.snippet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.opentelemetry.javaagent.bootstrap.servlet.InjectionState;
+import io.opentelemetry.javaagent.instrumentation.servlet.snippet.OutputStreamSnippetInjectionHelper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures writing a 1 MB HTML response in chunks through the snippet injecting output stream and
+ * writer, with the head tag either at the start of the response or missing.
+ */
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@State(Scope.Thread)
+public class SnippetInjectionBenchmark {
+
+  private static final int RESPONSE_SIZE = 1024 * 1024;
+  private static final String SNIPPET = "<script type=\"text/javascript\"> Test </script>";
+
+  private static final OutputStreamSnippetInjectionHelper helper =
+      new OutputStreamSnippetInjectionHelper(() -> SNIPPET);
+  private static final OutputStream nullOutputStream =
+      new OutputStream() {
+        @Override
+        public void write(int b) {}
+
+        @Override
+        public void write(byte[] b, int off, int len) {}
+      };
+
+  @Param({"start", "none"})
+  String headTag;
+
+  @Param({"8192"})
+  int chunkSize;
+
+  private String html;
+  private byte[] htmlBytes;
+  private char[] htmlChars;
+  private HttpServletResponse response;
+
+  @Setup
+  public void setup() {
+    StringBuilder builder = new StringBuilder(RESPONSE_SIZE);
+    builder.append("<!DOCTYPE html>\n<html lang=\"en\">\n");
+    if (headTag.equals("start")) {
+      builder.append("<head>\n  <title>Title</title>\n</head>\n");
+    }
+    builder.append("<body>\n");
+    while (builder.length() < RESPONSE_SIZE - 32) {
+      builder.append("  <p class=\"row\">Lorem ipsum dolor sit amet</p>\n");
+    }
+    builder.append("</body>\n</html>\n");
+    html = builder.toString();
+    htmlBytes = html.getBytes(UTF_8);
+    htmlChars = html.toCharArray();
+    response = htmlResponse();
+  }
+
+  @Benchmark
+  public void outputStream() throws IOException {
+    Servlet3SnippetInjectingResponseWrapper wrapper =
+        new Servlet3SnippetInjectingResponseWrapper(response, SNIPPET);
+    InjectionState state = new InjectionState(wrapper);
+    for (int off = 0; off < htmlBytes.length; off += chunkSize) {
+      int len = Math.min(chunkSize, htmlBytes.length - off);
+      if (!helper.handleWrite(state, nullOutputStream, htmlBytes, off, len)) {
+        nullOutputStream.write(htmlBytes, off, len);
+      }
+    }
+  }
+
+  @Benchmark
+  public void writeChars() throws IOException {
+    PrintWriter writer = new Servlet3SnippetInjectingResponseWrapper(response, SNIPPET).getWriter();
+    for (int off = 0; off < htmlChars.length; off += chunkSize) {
+      writer.write(htmlChars, off, Math.min(chunkSize, htmlChars.length - off));
+    }
+  }
+
+  @Benchmark
+  public void writeString() throws IOException {
+    PrintWriter writer = new Servlet3SnippetInjectingResponseWrapper(response, SNIPPET).getWriter();
+    for (int off = 0; off < html.length(); off += chunkSize) {
+      writer.write(html, off, Math.min(chunkSize, html.length() - off));
+    }
+  }
+
+  private static HttpServletResponse htmlResponse() {
+    PrintWriter nullWriter =
+        new PrintWriter(
+            new Writer() {
+              @Override
+              public void write(char[] cbuf, int off, int len) {}
+
+              @Override
+              public void flush() {}
+
+              @Override
+              public void close() {}
+            });
+    return (HttpServletResponse)
+        Proxy.newProxyInstance(
+            HttpServletResponse.class.getClassLoader(),
+            new Class<?>[] {HttpServletResponse.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "getContentType":
+                  return "text/html";
+                case "getCharacterEncoding":
+                  return "UTF-8";
+                case "getWriter":
+                  return nullWriter;
+                case "isCommitted":
+                  return false;
+                default:
+                  return null;
+              }
+            });
+  }
+}
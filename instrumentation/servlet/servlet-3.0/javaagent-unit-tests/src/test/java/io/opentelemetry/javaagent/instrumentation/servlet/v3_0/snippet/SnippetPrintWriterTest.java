@@ -140,6 +140,26 @@ class SnippetPrintWriterTest {
     assertThat(response.getStringContent()).isEqualTo(expectedHtml);
   }
 
+  @Test
+  void testHeadTagSplitAcrossWrites() throws IOException {
+    String snippet = "<script>Test</script>";
+    String html = "<!DOCTYPE html>\n<html><<head>\n<title>Title</title>";
+
+    InMemoryHttpServletResponse response = createInMemoryHttpServletResponse("text/html");
+    Servlet3SnippetInjectingResponseWrapper responseWrapper =
+        new Servlet3SnippetInjectingResponseWrapper(response, snippet);
+
+    char[] chars = html.toCharArray();
+    PrintWriter writer = responseWrapper.getWriter();
+    writer.write(chars, 0, 25);
+    writer.write(html, 25, 2);
+    writer.write(chars, 27, chars.length - 27);
+    writer.flush();
+
+    assertThat(response.getStringContent())
+        .isEqualTo("<!DOCTYPE html>\n<html><<head><script>Test</script>\n<title>Title</title>");
+  }
+
   private static InMemoryHttpServletResponse createInMemoryHttpServletResponse(String contentType) {
     HttpServletResponse response = mock(HttpServletResponse.class);
     when(response.getContentType()).thenReturn(contentType);
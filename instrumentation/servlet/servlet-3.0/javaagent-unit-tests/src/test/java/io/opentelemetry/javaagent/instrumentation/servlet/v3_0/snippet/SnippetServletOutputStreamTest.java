@@ -144,6 +144,29 @@ class SnippetServletOutputStreamTest {
     assertThat(out.getBytes()).isEqualTo(expectedHtml);
   }
 
+  @Test
+  void testHeadTagSplitAcrossManyWritesWithOffset() throws IOException {
+    String snippet = "<script>Test</script>";
+    byte[] html = "xx<<hea|d>\n<title>Title</title>|yy".getBytes(UTF_8);
+
+    InjectionState obj = createInjectionStateForTesting(snippet, UTF_8);
+    InMemoryServletOutputStream out = new InMemoryServletOutputStream();
+    OutputStreamSnippetInjectionHelper helper =
+        new OutputStreamSnippetInjectionHelper(() -> snippet);
+
+    // writes "<<hea" and "d>\n<title>Title</title>" from the middle of the array
+    boolean injected = helper.handleWrite(obj, out, html, 2, 5);
+    assertThat(injected).isFalse();
+    assertThat(obj.getHeadTagBytesSeen()).isEqualTo(4);
+    out.write(html, 2, 5);
+
+    injected = helper.handleWrite(obj, out, html, 8, 23);
+    assertThat(injected).isTrue();
+    assertThat(obj.getHeadTagBytesSeen()).isEqualTo(-1);
+    assertThat(new String(out.getBytes(), UTF_8))
+        .isEqualTo("<<head><script>Test</script>\n<title>Title</title>");
+  }
+
   private static InjectionState createInjectionStateForTesting(String snippet, Charset charset) {
     HttpServletResponse response = mock(HttpServletResponse.class);
     when(response.isCommitted()).thenReturn(false);
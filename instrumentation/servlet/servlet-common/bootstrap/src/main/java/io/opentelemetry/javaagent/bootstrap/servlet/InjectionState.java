@@ -5,12 +5,18 @@
 
 package io.opentelemetry.javaagent.bootstrap.servlet;
 
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
+
 // this is shared by both ServletOutputStream and PrintWriter injection
 public class InjectionState {
   private static final int HEAD_TAG_WRITTEN_FAKE_VALUE = -1;
   private static final int HEAD_TAG_PREFIX_LENGTH = "<head".length();
+  // the number of bytes (or chars) of a response that are searched for the head tag, -1 for all
+  private static final int MAX_SCANNED_LENGTH =
+      ConfigPropertiesUtil.getInt("otel.experimental.javascript-snippet.max-scanned-length", -1);
   private final SnippetInjectingResponseWrapper wrapper;
   private int headTagBytesSeen = 0;
+  private long remainingLength = MAX_SCANNED_LENGTH;
 
   public InjectionState(SnippetInjectingResponseWrapper wrapper) {
     this.wrapper = wrapper;
@@ -28,6 +34,10 @@ public class InjectionState {
     headTagBytesSeen = HEAD_TAG_WRITTEN_FAKE_VALUE;
   }
 
+  /**
+   * Returns true when the head tag was found, or when searching for it was given up because the
+   * maximum scanned length was reached. Either way the rest of the response is written unchanged.
+   */
   public boolean isHeadTagWritten() {
     return headTagBytesSeen == HEAD_TAG_WRITTEN_FAKE_VALUE;
   }
@@ -40,10 +50,96 @@ public class InjectionState {
     if (isHeadTagWritten()) {
       return false;
     }
+    if (remainingLength == 0) {
+      setHeadTagWritten();
+      return false;
+    }
+    remainingLength--;
+    return matchByte(b);
+  }
+
+  /**
+   * Returns the index of the byte that is the last character of "<head>", after which the snippet
+   * is to be injected, or -1 when the head tag does not end within the given bytes.
+   */
+  public int processBytes(byte[] bytes, int off, int len) {
+    if (isHeadTagWritten()) {
+      return -1;
+    }
+    int end = scanEnd(off, len);
+    for (int i = off; i < end; i++) {
+      int b = bytes[i];
+      // quickly skip to the start of the next tag
+      if ((headTagBytesSeen != 0 || b == '<') && matchByte(b)) {
+        return i;
+      }
+    }
+    consume(end - off);
+    return -1;
+  }
+
+  /** Same as {@link #processBytes(byte[], int, int)}, for the chars written to a writer. */
+  public int processChars(char[] chars, int off, int len) {
+    if (isHeadTagWritten()) {
+      return -1;
+    }
+    int end = scanEnd(off, len);
+    for (int i = off; i < end; i++) {
+      char c = chars[i];
+      if ((headTagBytesSeen != 0 || c == '<') && matchByte(c)) {
+        return i;
+      }
+    }
+    consume(end - off);
+    return -1;
+  }
+
+  /** Same as {@link #processBytes(byte[], int, int)}, for the chars written to a writer. */
+  public int processChars(String s, int off, int len) {
+    if (isHeadTagWritten()) {
+      return -1;
+    }
+    int end = scanEnd(off, len);
+    int i = off;
+    while (i < end) {
+      if (headTagBytesSeen == 0) {
+        i = s.indexOf('<', i);
+        if (i < 0 || i >= end) {
+          break;
+        }
+      }
+      if (matchByte(s.charAt(i))) {
+        return i;
+      }
+      i++;
+    }
+    consume(end - off);
+    return -1;
+  }
+
+  private int scanEnd(int off, int len) {
+    if (remainingLength >= 0 && remainingLength < len) {
+      return off + (int) remainingLength;
+    }
+    return off + len;
+  }
+
+  private void consume(int length) {
+    if (remainingLength < 0) {
+      return;
+    }
+    remainingLength -= length;
+    if (remainingLength == 0) {
+      setHeadTagWritten();
+    }
+  }
+
+  private boolean matchByte(int b) {
     if (inHeadTag(b)) {
       headTagBytesSeen++;
     } else {
-      headTagBytesSeen = 0;
+      // a mismatching '<' may start the head tag
+      headTagBytesSeen = b == '<' ? 1 : 0;
     }
     if (headTagBytesSeen > HEAD_TAG_PREFIX_LENGTH && b == '>') {
       setHeadTagWritten();
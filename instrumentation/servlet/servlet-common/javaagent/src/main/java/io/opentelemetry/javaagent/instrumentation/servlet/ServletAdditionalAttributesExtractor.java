@@ -11,6 +11,7 @@ import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import io.opentelemetry.instrumentation.api.internal.SpanOnlyAttributesProvider;
 import io.opentelemetry.javaagent.bootstrap.internal.AgentCommonConfig;
 import io.opentelemetry.javaagent.bootstrap.internal.AgentInstrumentationConfig;
 import io.opentelemetry.semconv.incubating.EnduserIncubatingAttributes;
@@ -19,7 +20,8 @@ import javax.annotation.Nullable;
 
 public class ServletAdditionalAttributesExtractor<REQUEST, RESPONSE>
     implements AttributesExtractor<
-        ServletRequestContext<REQUEST>, ServletResponseContext<RESPONSE>> {
+            ServletRequestContext<REQUEST>, ServletResponseContext<RESPONSE>>,
+        SpanOnlyAttributesProvider {
   private static final boolean CAPTURE_EXPERIMENTAL_SPAN_ATTRIBUTES =
       AgentInstrumentationConfig.get()
           .getBoolean("otel.instrumentation.servlet.experimental-span-attributes", false);
@@ -61,4 +63,10 @@ public class ServletAdditionalAttributesExtractor<REQUEST, RESPONSE>
       attributes.put(SERVLET_TIMEOUT, responseContext.getTimeout());
     }
   }
+
+  @Override
+  public boolean internalIsSpanOnly() {
+    // these attributes are captured only at the end of the request and are not used by metrics
+    return true;
+  }
 }
@@ -11,6 +11,7 @@ import io.opentelemetry.api.common.AttributeKey;
 import io.opentelemetry.api.common.AttributesBuilder;
 import io.opentelemetry.context.Context;
 import io.opentelemetry.instrumentation.api.instrumenter.AttributesExtractor;
+import io.opentelemetry.instrumentation.api.internal.SpanOnlyAttributesProvider;
 import io.opentelemetry.javaagent.bootstrap.internal.AgentInstrumentationConfig;
 import java.util.List;
 import java.util.Locale;
@@ -21,7 +22,8 @@ import javax.annotation.Nullable;
 
 public class ServletRequestParametersExtractor<REQUEST, RESPONSE>
     implements AttributesExtractor<
-        ServletRequestContext<REQUEST>, ServletResponseContext<RESPONSE>> {
+            ServletRequestContext<REQUEST>, ServletResponseContext<RESPONSE>>,
+        SpanOnlyAttributesProvider {
   private static final List<String> CAPTURE_REQUEST_PARAMETERS =
       AgentInstrumentationConfig.get()
           .getList(
@@ -69,6 +71,12 @@ public class ServletRequestParametersExtractor<REQUEST, RESPONSE>
     setAttributes(request, attributes::put);
   }
 
+  @Override
+  public boolean internalIsSpanOnly() {
+    // request parameters are never used for sampling nor for metrics
+    return true;
+  }
+
   private static AttributeKey<List<String>> parameterAttributeKey(String headerName) {
     return parameterKeysCache.computeIfAbsent(
         headerName, ServletRequestParametersExtractor::createKey);
@@ -40,17 +40,8 @@ public class OutputStreamSnippetInjectionHelper {
     if (state.isHeadTagWritten()) {
       return false;
     }
-    int endOfHeadTagPosition;
-    boolean endOfHeadTagFound = false;
-    for (endOfHeadTagPosition = off;
-        endOfHeadTagPosition < length && endOfHeadTagPosition - off < length;
-        endOfHeadTagPosition++) {
-      if (state.processByte(original[endOfHeadTagPosition])) {
-        endOfHeadTagFound = true;
-        break;
-      }
-    }
-    if (!endOfHeadTagFound) {
+    int endOfHeadTagPosition = state.processBytes(original, off, length);
+    if (endOfHeadTagPosition < 0) {
       return false;
     }
 
@@ -66,9 +57,10 @@ public class OutputStreamSnippetInjectionHelper {
     }
     // updating Content-Length before any further writing in case that writing triggers a flush
     state.getWrapper().updateContentLengthIfPreviouslySet();
-    out.write(original, off, endOfHeadTagPosition + 1);
+    int headLength = endOfHeadTagPosition + 1 - off;
+    out.write(original, off, headLength);
     out.write(snippetBytes);
-    out.write(original, endOfHeadTagPosition + 1, length - endOfHeadTagPosition - 1);
+    out.write(original, endOfHeadTagPosition + 1, length - headLength);
     return true;
   }
 
@@ -93,7 +93,14 @@ public final class OpenTelemetryAgent {
     // after premain execution completes
     JarFile agentJar = new JarFile(javaagentFile, false);
     verifyJarManifestMainClassIsThis(javaagentFile, agentJar);
-    inst.appendToBootstrapClassLoaderSearch(agentJar);
+    // when the agent jar is already on the boot class path (-Xbootclasspath/a) it must not be
+    // appended again, so that the boot class path matches the one recorded in a class data sharing
+    // archive and the bootstrap classes of the agent can be loaded from the archive
+    if (OpenTelemetryAgent.class.getClassLoader() != null) {
+      inst.appendToBootstrapClassLoaderSearch(agentJar);
+    } else {
+      agentJar.close();
+    }
     return javaagentFile;
   }
 
@@ -5,10 +5,14 @@
 
 package io.opentelemetry.javaagent.bootstrap;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
@@ -23,6 +27,8 @@ import java.security.PermissionCollection;
 import java.security.Permissions;
 import java.security.cert.Certificate;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
@@ -48,6 +54,9 @@ public class AgentClassLoader extends URLClassLoader {
 
   private static final String META_INF = "META-INF/";
   private static final String META_INF_VERSIONS = META_INF + "versions/";
+  // lists the entries of the internal jar that have multi release variants, generated when the
+  // agent jar is built
+  private static final String MULTI_RELEASE_INDEX = META_INF + "multi-release.idx";
 
   // multi release jars were added in java 9
   private static final int MIN_MULTI_RELEASE_JAR_JAVA_VERSION = 9;
@@ -68,6 +77,9 @@ public class AgentClassLoader extends URLClassLoader {
   private final CodeSource codeSource;
   private final boolean isSecurityManagerSupportEnabled;
   private final Manifest manifest;
+  // maps entries that have a variant for the current java version to the version of the variant,
+  // null when the jar has no multi release index and the variants are searched for on each lookup
+  @Nullable private final Map<String, Integer> multiReleaseVersions;
 
   // Used by tests
   public AgentClassLoader(File javaagentFile) {
@@ -107,6 +119,8 @@ public class AgentClassLoader extends URLClassLoader {
           new URL("x-internal-jar", null, 0, "/", new AgentClassLoaderUrlStreamHandler(jarFile));
       codeSource = new CodeSource(javaagentFile.toURI().toURL(), (Certificate[]) null);
       manifest = jarFile.getManifest();
+      multiReleaseVersions =
+          MULTI_RELEASE_JAR_ENABLE ? readMultiReleaseIndex(jarFile, jarEntryPrefix) : null;
     } catch (IOException e) {
       throw new IllegalStateException("Unable to open agent jar", e);
     }
@@ -236,13 +250,53 @@ public class AgentClassLoader extends URLClassLoader {
     return index == -1 ? null : className.substring(0, index);
   }
 
+  @Nullable
+  private static Map<String, Integer> readMultiReleaseIndex(JarFile jarFile, String jarEntryPrefix)
+      throws IOException {
+    JarEntry indexEntry = jarFile.getJarEntry(jarEntryPrefix + MULTI_RELEASE_INDEX);
+    if (indexEntry == null) {
+      return null;
+    }
+
+    // each line has the format "<version> <entry name>"
+    Map<String, Integer> versions = new HashMap<>();
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(jarFile.getInputStream(indexEntry), UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        int separator = line.indexOf(' ');
+        if (separator == -1) {
+          continue;
+        }
+        int version = Integer.parseInt(line.substring(0, separator));
+        String name = line.substring(separator + 1);
+        Integer previousVersion = versions.get(name);
+        // same logic as in JarFile.getVersionedEntry, use the highest version that is supported
+        if (version <= JAVA_VERSION
+            && version >= MIN_MULTI_RELEASE_JAR_JAVA_VERSION
+            && (previousVersion == null || previousVersion < version)) {
+          versions.put(name, version);
+        }
+      }
+    }
+    return versions;
+  }
+
   private JarEntry findJarEntry(String name) {
-    // shading renames .class to .classdata
-    boolean isClass = name.endsWith(".class");
-    if (isClass) {
-      name += getClassSuffix();
+    if (multiReleaseVersions != null) {
+      Integer version = multiReleaseVersions.get(name);
+      if (version != null) {
+        JarEntry versionedJarEntry =
+            jarFile.getJarEntry(
+                jarEntryPrefix + META_INF_VERSIONS + version + "/" + addClassSuffix(name));
+        if (versionedJarEntry != null) {
+          return versionedJarEntry;
+        }
+      }
+      return jarFile.getJarEntry(jarEntryPrefix + addClassSuffix(name));
     }
 
+    name = addClassSuffix(name);
     JarEntry jarEntry = jarFile.getJarEntry(jarEntryPrefix + name);
     if (MULTI_RELEASE_JAR_ENABLE) {
       jarEntry = findVersionedJarEntry(jarEntry, name);
@@ -250,6 +304,11 @@ public class AgentClassLoader extends URLClassLoader {
     return jarEntry;
   }
 
+  private String addClassSuffix(String name) {
+    // shading renames .class to .classdata
+    return name.endsWith(".class") ? name + getClassSuffix() : name;
+  }
+
   // suffix appended to class resource names
   // this is in a protected method so that unit tests could override it
   protected String getClassSuffix() {
@@ -0,0 +1,48 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the classes that were considered for transformation. Candidate classes are the ones for
+ * which the type matcher index found at least one transformation that may apply, skipped classes
+ * are the ones for which only the transformations whose matchers can't be indexed had to be run.
+ * The counts are in the bootstrap class loader so that they can be read from benchmarks and tests
+ * running in the instrumented application.
+ */
+public final class TransformationStats {
+
+  private static final AtomicLong candidateClasses = new AtomicLong();
+  private static final AtomicLong skippedClasses = new AtomicLong();
+  private static final AtomicLong transformedClasses = new AtomicLong();
+
+  public static void recordCandidate() {
+    candidateClasses.incrementAndGet();
+  }
+
+  public static void recordSkipped() {
+    skippedClasses.incrementAndGet();
+  }
+
+  public static void recordTransformed() {
+    transformedClasses.incrementAndGet();
+  }
+
+  public static long getCandidateClasses() {
+    return candidateClasses.get();
+  }
+
+  public static long getSkippedClasses() {
+    return skippedClasses.get();
+  }
+
+  public static long getTransformedClasses() {
+    return transformedClasses.get();
+  }
+
+  private TransformationStats() {}
+}
@@ -9,7 +9,10 @@ import io.opentelemetry.sdk.internal.JavaVersionSpecific
 import spock.lang.Specification
 
 import java.lang.reflect.Field
+import java.nio.file.Files
 import java.util.concurrent.Phaser
+import java.util.jar.JarOutputStream
+import java.util.zip.ZipEntry
 
 class AgentClassLoaderTest extends Specification {
 
@@ -84,4 +87,35 @@ class AgentClassLoaderTest extends Specification {
     // expect a versioned class on java 9+
     jdk8 != javaVersionSpecific.getClass().getName().endsWith("Java9VersionSpecific")
   }
+
+  def "multi release jar with index"() {
+    setup:
+    boolean jdk8 = "1.8" == System.getProperty("java.specification.version")
+    File jar = Files.createTempFile("multi-release", ".jar").toFile()
+    jar.deleteOnExit()
+    new JarOutputStream(new FileOutputStream(jar)).withCloseable { out ->
+      def entries = [
+        "META-INF/multi-release.idx": "9 test/Indexed.txt\n",
+        "test/Indexed.txt": "base",
+        "META-INF/versions/9/test/Indexed.txt": "versioned",
+        "test/NotIndexed.txt": "base",
+        "META-INF/versions/9/test/NotIndexed.txt": "versioned"
+      ]
+      entries.each { name, content ->
+        out.putNextEntry(new ZipEntry(name))
+        out.write(content.getBytes("UTF-8"))
+        out.closeEntry()
+      }
+    }
+    AgentClassLoader loader = new AgentClassLoader(jar)
+
+    when:
+    URL indexed = loader.findResource("test/Indexed.txt")
+    URL notIndexed = loader.findResource("test/NotIndexed.txt")
+
+    then:
+    // variants are only looked up for the entries in the index
+    jdk8 != indexed.toString().contains("META-INF/versions/9/")
+    !notIndexed.toString().contains("META-INF/versions/9/")
+  }
 }
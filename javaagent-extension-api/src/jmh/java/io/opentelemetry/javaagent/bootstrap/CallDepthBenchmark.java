@@ -0,0 +1,117 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.bootstrap;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the call depth lookup that keeps all call depths of a thread in a single array with the
+ * previous implementation that used a separate {@link ThreadLocal} per class. Each operation
+ * simulates a request passing through a few nested instrumentations that track call depth.
+ *
+ * <p>The {@code newVirtualThread} benchmarks run each operation on a new virtual thread, which is
+ * the worst case for per thread state, and require Java 21.
+ */
+@Fork(3)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class CallDepthBenchmark {
+
+  private static final Class<?>[] INSTRUMENTED_CLASSES = {
+    CallDepthBenchmark.class, String.class, Integer.class, Long.class
+  };
+
+  @Param({"classValueThreadLocal", "slotArray"})
+  public String implementation;
+
+  private Function<Class<?>, CallDepth> callDepthLookup;
+  private Runnable request;
+  private Method unstartedVirtualThread;
+  private Object virtualThreadBuilder;
+
+  @Setup
+  public void setUp() throws Exception {
+    callDepthLookup =
+        implementation.equals("slotArray")
+            ? CallDepthThreadLocalMap::getCallDepth
+            : ClassValueThreadLocalMap::getCallDepth;
+    request = () -> simulateRequest(callDepthLookup);
+    try {
+      virtualThreadBuilder = Thread.class.getMethod("ofVirtual").invoke(null);
+      unstartedVirtualThread =
+          Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+    } catch (NoSuchMethodException e) {
+      // virtual threads are not available
+    }
+  }
+
+  @Benchmark
+  public int sameThread() {
+    return simulateRequest(callDepthLookup);
+  }
+
+  @Benchmark
+  public void newPlatformThread() throws InterruptedException {
+    Thread thread = new Thread(request);
+    thread.start();
+    thread.join();
+  }
+
+  @Benchmark
+  public void newVirtualThread() throws Exception {
+    if (unstartedVirtualThread == null) {
+      throw new IllegalStateException("Virtual threads require Java 21");
+    }
+    Thread thread = (Thread) unstartedVirtualThread.invoke(virtualThreadBuilder, request);
+    thread.start();
+    thread.join();
+  }
+
+  private static int simulateRequest(Function<Class<?>, CallDepth> callDepthLookup) {
+    int result = 0;
+    for (Class<?> instrumentedClass : INSTRUMENTED_CLASSES) {
+      result += callDepthLookup.apply(instrumentedClass).getAndIncrement();
+    }
+    for (int i = INSTRUMENTED_CLASSES.length - 1; i >= 0; i--) {
+      result += callDepthLookup.apply(INSTRUMENTED_CLASSES[i]).decrementAndGet();
+    }
+    return result;
+  }
+
+  /** The previous implementation, which does two lookups every time. */
+  private static final class ClassValueThreadLocalMap {
+
+    private static final ClassValue<ThreadLocal<CallDepth>> TLS =
+        new ClassValue<ThreadLocal<CallDepth>>() {
+          @Override
+          protected ThreadLocal<CallDepth> computeValue(Class<?> type) {
+            return ThreadLocal.withInitial(CallDepth::new);
+          }
+        };
+
+    static CallDepth getCallDepth(Class<?> k) {
+      return TLS.get(k).get();
+    }
+
+    private ClassValueThreadLocalMap() {}
+  }
+}
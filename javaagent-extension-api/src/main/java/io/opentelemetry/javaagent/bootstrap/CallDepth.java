@@ -22,9 +22,12 @@ package io.opentelemetry.javaagent.bootstrap;
  */
 public final class CallDepth {
 
+  // identifies the class this call depth belongs to, see CallDepthThreadLocalMap
+  final int slotId;
   private int depth;
 
-  CallDepth() {
+  CallDepth(int slotId) {
+    this.slotId = slotId;
     this.depth = 0;
   }
 
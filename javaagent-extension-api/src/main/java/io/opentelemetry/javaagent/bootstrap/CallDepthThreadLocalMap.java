@@ -5,24 +5,109 @@
 
 package io.opentelemetry.javaagent.bootstrap;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Every class that call depth is tracked for gets a slot, a small integer assigned the first time
+ * the class is used. Each thread keeps the call depths of all classes in a single array indexed by
+ * the slot, so that looking up the call depth takes a single thread local lookup no matter how many
+ * instrumentations track call depth.
+ *
+ * <p>The slot is only referenced from the {@link ClassValue} of its class. When the class is
+ * unloaded, e.g. when an application is redeployed, the slot is collected and its index is reused
+ * for the next class, so that the number of slots, and the size of the per thread arrays, is
+ * bounded by the number of classes that are loaded at the same time.
+ */
 final class CallDepthThreadLocalMap {
 
-  private static final ClassValue<ThreadLocalDepth> TLS =
-      new ClassValue<ThreadLocalDepth>() {
+  private static final int INITIAL_CAPACITY = 8;
+
+  // guarded by CallDepthThreadLocalMap.class
+  private static final ReferenceQueue<Slot> collectedSlots = new ReferenceQueue<>();
+  // keeps the references reachable until they are enqueued
+  private static final Set<SlotReference> slotReferences = new HashSet<>();
+  private static final Deque<Integer> freeIndexes = new ArrayDeque<>();
+  private static int nextIndex;
+  private static int nextId;
+
+  private static final ClassValue<Slot> SLOTS =
+      new ClassValue<Slot>() {
+        @Override
+        protected Slot computeValue(Class<?> type) {
+          return newSlot();
+        }
+      };
+
+  private static final ThreadLocal<CallDepth[]> TLS =
+      new ThreadLocal<CallDepth[]>() {
         @Override
-        protected ThreadLocalDepth computeValue(Class<?> type) {
-          return new ThreadLocalDepth();
+        protected CallDepth[] initialValue() {
+          return new CallDepth[INITIAL_CAPACITY];
         }
       };
 
   static CallDepth getCallDepth(Class<?> k) {
-    return TLS.get(k).get();
+    Slot slot = SLOTS.get(k);
+    CallDepth[] callDepths = TLS.get();
+    if (slot.index < callDepths.length) {
+      CallDepth callDepth = callDepths[slot.index];
+      // the index may have belonged to a class that was unloaded since
+      if (callDepth != null && callDepth.slotId == slot.id) {
+        return callDepth;
+      }
+    }
+    return newCallDepth(slot, callDepths);
+  }
+
+  private static CallDepth newCallDepth(Slot slot, CallDepth[] callDepths) {
+    if (slot.index >= callDepths.length) {
+      CallDepth[] grown = new CallDepth[Math.max(slot.index + 1, callDepths.length * 2)];
+      System.arraycopy(callDepths, 0, grown, 0, callDepths.length);
+      callDepths = grown;
+      TLS.set(callDepths);
+    }
+    CallDepth callDepth = new CallDepth(slot.id);
+    callDepths[slot.index] = callDepth;
+    return callDepth;
+  }
+
+  private static synchronized Slot newSlot() {
+    for (Reference<? extends Slot> reference = collectedSlots.poll();
+        reference != null;
+        reference = collectedSlots.poll()) {
+      SlotReference slotReference = (SlotReference) reference;
+      slotReferences.remove(slotReference);
+      freeIndexes.push(slotReference.index);
+    }
+    Integer freeIndex = freeIndexes.poll();
+    Slot slot = new Slot(freeIndex != null ? freeIndex : nextIndex++, nextId++);
+    slotReferences.add(new SlotReference(slot, collectedSlots));
+    return slot;
   }
 
-  private static final class ThreadLocalDepth extends ThreadLocal<CallDepth> {
-    @Override
-    protected CallDepth initialValue() {
-      return new CallDepth();
+  private static final class Slot {
+    final int index;
+    // unlike the index never reused
+    final int id;
+
+    Slot(int index, int id) {
+      this.index = index;
+      this.id = id;
+    }
+  }
+
+  private static final class SlotReference extends WeakReference<Slot> {
+    final int index;
+
+    SlotReference(Slot slot, ReferenceQueue<Slot> queue) {
+      super(slot, queue);
+      this.index = slot.index;
     }
   }
 
@@ -5,29 +5,41 @@
 
 package io.opentelemetry.javaagent.extension.matcher;
 
+import io.opentelemetry.instrumentation.api.internal.ConfigPropertiesUtil;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.bootstrap.internal.ClassLoaderMatcherCacheHolder;
 import io.opentelemetry.javaagent.bootstrap.internal.InClassLoaderMatcher;
+import io.opentelemetry.javaagent.extension.matcher.internal.ClassNamesMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import net.bytebuddy.matcher.ElementMatcher;
 
-class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.AbstractBase<ClassLoader> {
+class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.AbstractBase<ClassLoader>
+    implements ClassNamesMatcher {
   // caching is disabled for build time muzzle checks
   // this field is set via reflection from ClassLoaderMatcher
   static boolean useCache = true;
-  private static final AtomicInteger counter = new AtomicInteger();
 
+  private final List<String> classNames;
   private final String[] resources;
-  // each matcher gets a unique index that is used for caching the matching status
-  private final int index = counter.getAndIncrement();
+  // each distinct resource gets a unique index that is used for caching whether the class loader
+  // has it, so that resources that are used by multiple matchers are looked up only once
+  private final int[] resourceIndexes;
 
   ClassLoaderHasClassesNamedMatcher(String... classNames) {
+    this.classNames = Collections.unmodifiableList(Arrays.asList(classNames.clone()));
     resources = classNames;
+    resourceIndexes = new int[resources.length];
     for (int i = 0; i < resources.length; i++) {
       resources[i] = resources[i].replace(".", "/") + ".class";
+      resourceIndexes[i] = Resources.INSTANCE.indexOf(resources[i]);
     }
   }
 
@@ -44,6 +56,11 @@ class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.Abstract
     }
   }
 
+  @Override
+  public List<String> getClassNames() {
+    return classNames;
+  }
+
   private static boolean hasResources(ClassLoader cl, String... resources) {
     boolean priorValue = InClassLoaderMatcher.getAndSet(true);
     try {
@@ -58,38 +75,122 @@ class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.Abstract
     return true;
   }
 
-  private static class Manager {
-    static final Manager INSTANCE = new Manager();
-    // each matcher gets a two bits in BitSet, that first bit indicates whether current matcher has
-    // been run for given class loader and the second whether it matched or not
+  // all resources that matchers have been created for
+  static class Resources {
+    static final Resources INSTANCE = new Resources();
+
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    synchronized int indexOf(String resource) {
+      Integer index = indexes.get(resource);
+      if (index == null) {
+        index = names.size();
+        indexes.put(resource, index);
+        names.add(resource);
+      }
+      return index;
+    }
+
+    synchronized List<String> getNames() {
+      return new ArrayList<>(names);
+    }
+
+    synchronized int size() {
+      return names.size();
+    }
+  }
+
+  static class Manager {
+    private static final String BATCH_PROBE_PROPERTY =
+        "otel.javaagent.experimental.class-loader-matcher.batch-probe.enabled";
+
+    static final Manager INSTANCE =
+        new Manager(
+            Resources.INSTANCE, ConfigPropertiesUtil.getBoolean(BATCH_PROBE_PROPERTY, false));
+
+    private final Resources resources;
+    // when enabled all known resources are looked up at once when a class loader is first seen,
+    // otherwise resources are looked up when the first matcher that uses them runs
+    private final boolean batchProbe;
+    // each resource gets two bits in BitSet, that first bit indicates whether the resource has
+    // been looked up in given class loader and the second whether it was found or not
     private final Cache<ClassLoader, BitSet> enabled = Cache.weak();
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
     private final Lock readLock = lock.readLock();
     private final Lock writeLock = lock.writeLock();
 
-    Manager() {
+    Manager(Resources resources, boolean batchProbe) {
+      this.resources = resources;
+      this.batchProbe = batchProbe;
       ClassLoaderMatcherCacheHolder.addCache(enabled);
     }
 
     boolean match(ClassLoaderHasClassesNamedMatcher matcher, ClassLoader cl) {
-      BitSet set = enabled.computeIfAbsent(cl, (unused) -> new BitSet(counter.get() * 2));
-      int matcherRunBit = 2 * matcher.index;
-      int matchedBit = matcherRunBit + 1;
+      BitSet newSet = new BitSet(resources.size() * 2);
+      BitSet set = enabled.computeIfAbsent(cl, k -> newSet);
+      if (batchProbe && set == newSet) {
+        probeAll(set, cl);
+      }
+      for (int i = 0; i < matcher.resources.length; i++) {
+        if (!hasResource(set, cl, matcher.resourceIndexes[i], matcher.resources[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void probeAll(BitSet set, ClassLoader cl) {
+      // sorting groups the resources by package
+      List<String> names = resources.getNames();
+      List<String> sortedNames = new ArrayList<>(names);
+      Collections.sort(sortedNames);
+      // like in hasResource we do the resource presence checks outside the lock, loading a class
+      // while looking up a resource may run the matchers for the same class loader again
+      Map<String, Boolean> found = new HashMap<>();
+      boolean priorValue = InClassLoaderMatcher.getAndSet(true);
+      try {
+        for (String name : sortedNames) {
+          found.put(name, cl.getResource(name) != null);
+        }
+      } finally {
+        InClassLoaderMatcher.set(priorValue);
+      }
+
+      writeLock.lock();
+      try {
+        for (int index = 0; index < names.size(); index++) {
+          int probedBit = 2 * index;
+          if (!set.get(probedBit)) {
+            if (found.get(names.get(index))) {
+              set.set(probedBit + 1);
+            }
+            set.set(probedBit);
+          }
+        }
+      } finally {
+        writeLock.unlock();
+      }
+    }
+
+    private boolean hasResource(BitSet set, ClassLoader cl, int resourceIndex, String resource) {
+      int probedBit = 2 * resourceIndex;
+      int foundBit = probedBit + 1;
       readLock.lock();
       try {
-        if (!set.get(matcherRunBit)) {
+        if (!set.get(probedBit)) {
           // read lock needs to be released before upgrading to write lock
           readLock.unlock();
           // we do the resource presence check outside the lock to keep the time we need to hold
           // the write lock minimal
-          boolean matches = hasResources(cl, matcher.resources);
+          boolean found = hasResources(cl, resource);
           writeLock.lock();
           try {
-            if (!set.get(matcherRunBit)) {
-              if (matches) {
-                set.set(matchedBit);
+            if (!set.get(probedBit)) {
+              if (found) {
+                set.set(foundBit);
               }
-              set.set(matcherRunBit);
+              set.set(probedBit);
             }
           } finally {
             // downgrading the write lock to the read lock
@@ -98,7 +199,7 @@ class ClassLoaderHasClassesNamedMatcher extends ElementMatcher.Junction.Abstract
           }
         }
 
-        return set.get(matchedBit);
+        return set.get(foundBit);
       } finally {
         readLock.unlock();
       }
@@ -0,0 +1,21 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.extension.matcher.internal;
+
+import java.util.List;
+
+/**
+ * Interface for extracting the names of the classes that a class loader must have for the given
+ * class loader matcher to match.
+ *
+ * <p>This class is internal and is hence not for public use. Its APIs are unstable and can change
+ * at any time.
+ */
+public interface ClassNamesMatcher {
+
+  /** Returns the names of the classes that the class loader must have. */
+  List<String> getClassNames();
+}
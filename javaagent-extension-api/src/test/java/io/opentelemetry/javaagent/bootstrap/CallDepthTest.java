@@ -7,6 +7,9 @@ package io.opentelemetry.javaagent.bootstrap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 
 class CallDepthTest {
@@ -28,4 +31,46 @@ class CallDepthTest {
     assertThat(CallDepth.forClass(Double.class).getAndIncrement()).isZero();
     assertThat(CallDepth.forClass(Double.class).decrementAndGet()).isZero();
   }
+
+  @Test
+  void manyClasses() {
+    Class<?>[] classes = {
+      Byte.class, Short.class, Long.class, Float.class, Character.class, Boolean.class,
+      Object.class, Number.class, Class.class, Thread.class, Runnable.class, Void.class
+    };
+    for (Class<?> cls : classes) {
+      assertThat(CallDepth.forClass(cls).getAndIncrement()).isZero();
+    }
+    for (Class<?> cls : classes) {
+      assertThat(CallDepth.forClass(cls).decrementAndGet()).isZero();
+    }
+  }
+
+  @Test
+  void differentThreads() throws InterruptedException {
+    assertThat(CallDepth.forClass(String.class).getAndIncrement()).isZero();
+
+    AtomicInteger otherThreadDepth = new AtomicInteger(-1);
+    Thread thread =
+        new Thread(() -> otherThreadDepth.set(CallDepth.forClass(String.class).getAndIncrement()));
+    thread.start();
+    thread.join();
+
+    assertThat(otherThreadDepth.get()).isZero();
+    assertThat(CallDepth.forClass(String.class).decrementAndGet()).isZero();
+  }
+
+  @Test
+  void classesWithSameNameHaveSeparateDepths() throws Exception {
+    URL classes = CallDepthTest.class.getProtectionDomain().getCodeSource().getLocation();
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {classes}, null)) {
+      Class<?> copy = Class.forName(CallDepthTest.class.getName(), false, loader);
+      assertThat(copy).isNotSameAs(CallDepthTest.class);
+
+      assertThat(CallDepth.forClass(CallDepthTest.class).getAndIncrement()).isZero();
+      assertThat(CallDepth.forClass(copy).getAndIncrement()).isZero();
+      assertThat(CallDepth.forClass(copy).decrementAndGet()).isZero();
+      assertThat(CallDepth.forClass(CallDepthTest.class).decrementAndGet()).isZero();
+    }
+  }
 }
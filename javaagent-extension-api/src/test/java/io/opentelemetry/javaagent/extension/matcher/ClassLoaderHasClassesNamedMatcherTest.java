@@ -0,0 +1,110 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.extension.matcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+class ClassLoaderHasClassesNamedMatcherTest {
+
+  @Test
+  void sharedResourcesAreLookedUpOnce() {
+    ClassLoaderHasClassesNamedMatcher.Manager manager =
+        new ClassLoaderHasClassesNamedMatcher.Manager(
+            ClassLoaderHasClassesNamedMatcher.Resources.INSTANCE, false);
+    ClassLoaderHasClassesNamedMatcher first =
+        new ClassLoaderHasClassesNamedMatcher("test.shared.Present", "test.shared.Missing");
+    ClassLoaderHasClassesNamedMatcher second =
+        new ClassLoaderHasClassesNamedMatcher("test.shared.Present");
+    CountingClassLoader classLoader = new CountingClassLoader("test/shared/Present.class");
+
+    assertThat(manager.match(first, classLoader)).isFalse();
+    assertThat(manager.match(second, classLoader)).isTrue();
+    assertThat(manager.match(first, classLoader)).isFalse();
+
+    assertThat(classLoader.lookups)
+        .containsOnlyKeys("test/shared/Present.class", "test/shared/Missing.class")
+        .containsValues(1);
+  }
+
+  @Test
+  void batchProbeLooksUpAllResourcesWhenClassLoaderIsFirstSeen() {
+    ClassLoaderHasClassesNamedMatcher.Manager manager =
+        new ClassLoaderHasClassesNamedMatcher.Manager(
+            ClassLoaderHasClassesNamedMatcher.Resources.INSTANCE, true);
+    ClassLoaderHasClassesNamedMatcher first =
+        new ClassLoaderHasClassesNamedMatcher("test.batch.Present");
+    ClassLoaderHasClassesNamedMatcher second =
+        new ClassLoaderHasClassesNamedMatcher("test.batch.Missing");
+    CountingClassLoader classLoader = new CountingClassLoader("test/batch/Present.class");
+
+    assertThat(manager.match(first, classLoader)).isTrue();
+    assertThat(classLoader.lookups)
+        .containsEntry("test/batch/Present.class", 1)
+        .containsEntry("test/batch/Missing.class", 1);
+    int lookups = classLoader.lookups.size();
+
+    assertThat(manager.match(second, classLoader)).isFalse();
+    assertThat(classLoader.lookups).hasSize(lookups).containsValues(1);
+  }
+
+  @Test
+  void batchProbeAllowsMatchingWhileLookingUpResources() {
+    ClassLoaderHasClassesNamedMatcher.Manager manager =
+        new ClassLoaderHasClassesNamedMatcher.Manager(
+            ClassLoaderHasClassesNamedMatcher.Resources.INSTANCE, true);
+    ClassLoaderHasClassesNamedMatcher outer =
+        new ClassLoaderHasClassesNamedMatcher("test.nested.Outer");
+    ClassLoaderHasClassesNamedMatcher inner =
+        new ClassLoaderHasClassesNamedMatcher("test.nested.Inner");
+    CountingClassLoader classLoader =
+        new CountingClassLoader("test/nested/Outer.class", "test/nested/Inner.class");
+    // e.g. a class is loaded while looking up the resource, which runs the matchers again
+    classLoader.onLookup =
+        name -> {
+          if (name.equals("test/nested/Outer.class")) {
+            assertThat(manager.match(inner, classLoader)).isTrue();
+          }
+        };
+
+    assertThat(manager.match(outer, classLoader)).isTrue();
+    assertThat(manager.match(inner, classLoader)).isTrue();
+  }
+
+  private static class CountingClassLoader extends ClassLoader {
+    final Map<String, Integer> lookups = new ConcurrentHashMap<>();
+    private final Set<String> resources;
+    Consumer<String> onLookup = name -> {};
+
+    CountingClassLoader(String... resources) {
+      super(null);
+      this.resources = new HashSet<>(Arrays.asList(resources));
+    }
+
+    @Override
+    public URL getResource(String name) {
+      lookups.merge(name, 1, Integer::sum);
+      onLookup.accept(name);
+      if (!resources.contains(name)) {
+        return null;
+      }
+      try {
+        return new URL("file:/" + name);
+      } catch (MalformedURLException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+}
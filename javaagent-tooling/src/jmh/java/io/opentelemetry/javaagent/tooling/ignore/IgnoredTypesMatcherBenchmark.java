@@ -5,7 +5,16 @@
 
 package io.opentelemetry.javaagent.tooling.ignore;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import io.opentelemetry.javaagent.tooling.EmptyConfigProperties;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.matcher.ElementMatcher;
@@ -28,11 +37,15 @@ public class IgnoredTypesMatcherBenchmark {
       new TypeDescription.Latent("org.springframework.test.SomeClass", 0, null);
   private static final TypeDescription testAppType =
       new TypeDescription.Latent("com.example.myapp.Main", 0, null);
+  // classes loaded by a spring boot application that uses hibernate
+  private static final TypeDescription[] applicationTypes =
+      loadTypes("spring-boot-hibernate-class-names.txt");
 
   private static final ElementMatcher<TypeDescription> ignoredTypesMatcher;
 
   static {
     IgnoredTypesBuilderImpl builder = new IgnoredTypesBuilderImpl();
+    new GlobalIgnoredTypesConfigurer().configure(builder, EmptyConfigProperties.INSTANCE);
     new AdditionalLibraryIgnoredTypesConfigurer()
         .configure(builder, EmptyConfigProperties.INSTANCE);
     ignoredTypesMatcher = new IgnoredTypesMatcher(builder.buildIgnoredTypesTrie());
@@ -47,4 +60,31 @@ public class IgnoredTypesMatcherBenchmark {
   public boolean appType() {
     return ignoredTypesMatcher.matches(testAppType);
   }
+
+  @Benchmark
+  public int applicationTypes() {
+    int ignored = 0;
+    for (TypeDescription type : applicationTypes) {
+      if (ignoredTypesMatcher.matches(type)) {
+        ignored++;
+      }
+    }
+    return ignored;
+  }
+
+  private static TypeDescription[] loadTypes(String resource) {
+    List<TypeDescription> types = new ArrayList<>();
+    try (InputStream in = IgnoredTypesMatcherBenchmark.class.getResourceAsStream("/" + resource);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isEmpty() && !line.startsWith("#")) {
+          types.add(new TypeDescription.Latent(line, 0, null));
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return types.toArray(new TypeDescription[0]);
+  }
 }
@@ -43,6 +43,8 @@ import io.opentelemetry.javaagent.tooling.field.VirtualFieldImplementationInstal
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredClassLoadersMatcher;
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredTypesBuilderImpl;
 import io.opentelemetry.javaagent.tooling.ignore.IgnoredTypesMatcher;
+import io.opentelemetry.javaagent.tooling.instrumentation.LazyModuleActivation;
+import io.opentelemetry.javaagent.tooling.instrumentation.ModuleProfiling;
 import io.opentelemetry.javaagent.tooling.muzzle.AgentTooling;
 import io.opentelemetry.javaagent.tooling.util.Trie;
 import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
@@ -118,8 +120,11 @@ public class AgentInstaller {
       Iterable<AgentListener> agentListeners,
       EarlyInitAgentConfig earlyConfig) {
 
+    // before any of the agent's caches are created, e.g. the ones of the type pool strategy
+    CacheMetricsInstaller.configure(earlyConfig);
     WeakRefAsyncOperationEndStrategies.initialize();
     EmbeddedInstrumentationProperties.setPropertiesLoader(extensionClassLoader);
+    TransformationCache.initialize(earlyConfig);
     setDefineClassHandler();
     FieldBackedImplementationConfiguration.configure(earlyConfig);
 
@@ -172,6 +177,14 @@ public class AgentInstaller {
     }
 
     agentBuilder = agentBuilder.with(new ClassLoadListener());
+    boolean moduleProfilingEnabled = ModuleProfiling.isEnabled(sdkConfig);
+    if (moduleProfilingEnabled) {
+      agentBuilder = agentBuilder.with(ModuleProfiling.listener());
+    }
+    boolean lazyModuleActivationEnabled = LazyModuleActivation.isEnabled(sdkConfig);
+    if (lazyModuleActivationEnabled) {
+      agentBuilder = agentBuilder.with(LazyModuleActivation.listener());
+    }
     agentBuilder = configureIgnoredTypes(sdkConfig, extensionClassLoader, agentBuilder);
 
     int numberOfLoadedExtensions = 0;
@@ -202,6 +215,12 @@ public class AgentInstaller {
     ResettableClassFileTransformer resettableClassFileTransformer = agentBuilder.installOn(inst);
     instrumentationInstalled = true;
     ClassFileTransformerHolder.setClassFileTransformer(resettableClassFileTransformer);
+    if (lazyModuleActivationEnabled) {
+      LazyModuleActivation.start(inst);
+    }
+    if (moduleProfilingEnabled && autoConfiguredSdk != null) {
+      ModuleProfiling.registerMetrics(autoConfiguredSdk.getOpenTelemetrySdk());
+    }
 
     addHttpServerResponseCustomizers(extensionClassLoader);
 
@@ -239,7 +258,11 @@ public class AgentInstaller {
   }
 
   private static void copyNecessaryConfigToSystemProperties(ConfigProperties config) {
-    for (String property : asList("otel.instrumentation.experimental.span-suppression-strategy")) {
+    for (String property :
+        asList(
+            "otel.instrumentation.experimental.span-suppression-strategy",
+            "otel.instrumentation.experimental.db-statement-sanitizer.cache-max-bytes",
+            "otel.instrumentation.experimental.db-statement-sanitizer.max-length")) {
       String value = config.getString(property);
       if (value != null) {
         System.setProperty(property, value);
@@ -280,13 +303,22 @@ public class AgentInstaller {
     Trie<Boolean> ignoredTasksTrie = builder.buildIgnoredTasksTrie();
     InstrumentedTaskClasses.setIgnoredTaskClassesPredicate(ignoredTasksTrie::contains);
 
-    return agentBuilder
-        .ignore(any(), new IgnoredClassLoadersMatcher(builder.buildIgnoredClassLoadersTrie()))
-        .or(new IgnoredTypesMatcher(builder.buildIgnoredTypesTrie()))
-        .or(
-            (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) -> {
-              return HelperInjector.isInjectedClass(classLoader, typeDescription.getName());
-            });
+    AgentBuilder.Ignored ignoredAgentBuilder =
+        agentBuilder
+            .ignore(any(), new IgnoredClassLoadersMatcher(builder.buildIgnoredClassLoadersTrie()))
+            .or(new IgnoredTypesMatcher(builder.buildIgnoredTypesTrie()))
+            .or(
+                (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) -> {
+                  return HelperInjector.isInjectedClass(classLoader, typeDescription.getName());
+                });
+
+    TransformationCache transformationCache = TransformationCache.get();
+    if (transformationCache == null) {
+      return ignoredAgentBuilder;
+    }
+    return ignoredAgentBuilder
+        .or(transformationCache.ignoredMatcher())
+        .with(transformationCache.listener());
   }
 
   private static void addHttpServerResponseCustomizers(ClassLoader extensionClassLoader) {
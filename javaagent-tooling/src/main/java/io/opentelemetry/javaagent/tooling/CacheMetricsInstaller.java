@@ -0,0 +1,37 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import com.google.auto.service.AutoService;
+import io.opentelemetry.api.GlobalOpenTelemetry;
+import io.opentelemetry.instrumentation.api.internal.cache.CacheMetrics;
+import io.opentelemetry.javaagent.extension.AgentListener;
+import io.opentelemetry.javaagent.tooling.config.EarlyInitAgentConfig;
+import io.opentelemetry.sdk.autoconfigure.AutoConfiguredOpenTelemetrySdk;
+
+/**
+ * An {@link AgentListener} that reports the metrics of the agent's internal caches when {@code
+ * otel.instrumentation.experimental.cache-metrics.enabled} is set.
+ */
+@AutoService(AgentListener.class)
+public class CacheMetricsInstaller implements AgentListener {
+
+  /**
+   * Resolves whether cache metrics are enabled, before the agent creates its caches. The flag is
+   * read from the early config, so that it can also be set in the agent configuration file.
+   */
+  static void configure(EarlyInitAgentConfig config) {
+    CacheMetrics.setEnabled(
+        config.getBoolean("otel.instrumentation.experimental.cache-metrics.enabled", false));
+  }
+
+  @Override
+  public void afterAgent(AutoConfiguredOpenTelemetrySdk autoConfiguredSdk) {
+    if (CacheMetrics.isEnabled()) {
+      CacheMetrics.registerObservers(GlobalOpenTelemetry.get());
+    }
+  }
+}
@@ -10,6 +10,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.objectweb.asm.ClassReader;
 
 public class DefineClassHandler implements Handler {
@@ -52,6 +53,14 @@ public class DefineClassHandler implements Handler {
         addSuperNames(superNames, clazz);
       }
       context.superDotNames = superNames;
+      if (TransformationCache.get() != null && classLoader != null && className != null) {
+        // the key is computed only when the class reaches the transformation cache matcher
+        context.transformationCacheClassDotName = className;
+        context.classLoader = classLoader;
+        context.classBytes = classBytes;
+        context.classBytesOffset = offset;
+        context.classBytesLength = length;
+      }
     } catch (Throwable throwable) {
       // loading of super class or interface failed
       // mark current class as failed to skip matching and transforming it
@@ -106,12 +115,75 @@ public class DefineClassHandler implements Handler {
     return superNames == null ? Collections.emptySet() : superNames;
   }
 
+  /**
+   * Computes the key of the currently loaded class in the {@link TransformationCache}, or returns
+   * null if the class can't be cached.
+   *
+   * @param dotClassName class being loaded
+   */
+  @Nullable
+  public static long[] computeTransformationCacheKey(String dotClassName) {
+    DefineClassContextImpl context = defineClassContext.get();
+    if (!dotClassName.equals(context.transformationCacheClassDotName)) {
+      return null;
+    }
+    TransformationCache transformationCache = TransformationCache.get();
+    if (context.classBytes != null && transformationCache != null) {
+      context.transformationCacheKey =
+          transformationCache.computeKey(
+              context.classLoader,
+              dotClassName,
+              context.classBytes,
+              context.classBytesOffset,
+              context.classBytesLength,
+              context.superDotNames);
+      // compute the key only once
+      context.classBytes = null;
+    }
+    return context.transformationCacheKey;
+  }
+
+  /**
+   * Returns the key of the currently loaded class in the {@link TransformationCache} if it was
+   * already computed by {@link #computeTransformationCacheKey(String)}, or null otherwise.
+   *
+   * @param dotClassName class being loaded
+   */
+  @Nullable
+  public static long[] getTransformationCacheKey(String dotClassName) {
+    DefineClassContextImpl context = defineClassContext.get();
+    return dotClassName.equals(context.transformationCacheClassDotName)
+        ? context.transformationCacheKey
+        : null;
+  }
+
+  /**
+   * Prevents the currently loaded class from being recorded in the {@link TransformationCache},
+   * because a transformation was skipped for a reason that may not hold on the next run.
+   *
+   * @param dotClassName class being loaded
+   */
+  public static void excludeFromTransformationCache(String dotClassName) {
+    DefineClassContextImpl context = defineClassContext.get();
+    if (dotClassName.equals(context.transformationCacheClassDotName)) {
+      context.transformationCacheClassDotName = null;
+      context.transformationCacheKey = null;
+      context.classBytes = null;
+    }
+  }
+
   private static class DefineClassContextImpl implements DefineClassContext {
     private static final DefineClassContextImpl NOP = new DefineClassContextImpl();
 
     private final DefineClassContextImpl previous;
     String failedClassDotName;
     Set<String> superDotNames;
+    String transformationCacheClassDotName;
+    long[] transformationCacheKey;
+    ClassLoader classLoader;
+    byte[] classBytes;
+    int classBytesOffset;
+    int classBytesLength;
 
     private DefineClassContextImpl() {
       previous = null;
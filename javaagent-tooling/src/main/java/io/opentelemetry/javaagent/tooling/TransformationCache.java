@@ -0,0 +1,446 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Locale.ROOT;
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.instrumentation.api.internal.cache.Cache;
+import io.opentelemetry.javaagent.tooling.config.EarlyInitAgentConfig;
+import io.opentelemetry.javaagent.tooling.util.ClassPathFiles;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * Remembers across JVM restarts the classes that none of the transformations matched, so that on
+ * the next start they can be ignored without parsing them and running the type matchers again.
+ *
+ * <p>A class is identified by checksums of its bytes and of the names of the class and its super
+ * types, combined with a hash of the class path of its class loader (including the size and
+ * modification time of every class path entry), since class loader matchers and muzzle depend on
+ * what else the class loader can load. Class loaders whose class path can't be determined are not
+ * cached. The cache file name is derived from the agent version and the agent configuration, so a
+ * change to either starts a new cache.
+ *
+ * <p>The key is computed for every class that reaches the {@link #ignoredMatcher()}, so it uses the
+ * CRC32 and Adler32 checksums, which are implemented natively and are fast even before the JIT
+ * compiler kicks in. A cryptographic hash of the class bytes costs about as much as parsing and
+ * matching the class, which is what the cache saves.
+ *
+ * <p>Only the classes that passed all the other ignore matchers and then matched no transformation
+ * are recorded. The other ignore matchers are cheap, and some of them depend on state that changes
+ * between runs, e.g. on the helper classes that were already injected. Classes for which a
+ * transformation was skipped because its instrumentation module was not yet activated (see {@code
+ * LazyModuleActivation}) are not recorded either, the module may be active on the next run.
+ *
+ * <p>Transformed bytecode is deliberately not cached: applying a transformation also injects helper
+ * classes and sets up virtual fields in the class loader, which returning cached bytes would skip.
+ *
+ * <p>The cache file is an append only sequence of fixed size keys. It is memory mapped and read
+ * once on startup, new keys are appended in batches. Readers and writers take a file lock, so that
+ * multiple JVMs can share the same cache directory.
+ */
+public final class TransformationCache {
+
+  private static final Logger logger = Logger.getLogger(TransformationCache.class.getName());
+
+  private static final String DIRECTORY_PROPERTY =
+      "otel.javaagent.experimental.transformation-cache.directory";
+
+  static final int KEY_SIZE = 16;
+  // stop appending to the cache file once it holds this many keys
+  private static final int MAX_KEYS = 1 << 20;
+  private static final int FLUSH_THRESHOLD = 1024;
+  private static final long[] NOT_CACHEABLE = new long[0];
+
+  @Nullable private static volatile TransformationCache instance;
+
+  private final Path file;
+  private final KeySet ignoredClasses;
+  private final Queue<long[]> pending = new ConcurrentLinkedQueue<>();
+  private final ReentrantLock flushLock = new ReentrantLock();
+  private final Cache<ClassLoader, long[]> classLoaderSignatures = Cache.weak();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong recorded = new AtomicLong();
+  private final AtomicLong computedKeys = new AtomicLong();
+  private final AtomicLong computeKeyNanos = new AtomicLong();
+
+  public static void initialize(EarlyInitAgentConfig config) {
+    String directory = config.getString(DIRECTORY_PROPERTY);
+    if (directory == null || directory.isEmpty()) {
+      return;
+    }
+    try {
+      Path path = Paths.get(directory);
+      Files.createDirectories(path);
+      TransformationCache cache =
+          new TransformationCache(path.resolve("ignored-classes-" + configurationHash() + ".bin"));
+      Runtime.getRuntime()
+          .addShutdownHook(new Thread(cache::flush, "otel-javaagent-transformation-cache"));
+      instance = cache;
+    } catch (IOException | RuntimeException e) {
+      logger.log(WARNING, "Failed to initialize transformation cache in " + directory, e);
+    }
+  }
+
+  /** Returns the transformation cache, or {@code null} if it is not enabled. */
+  @Nullable
+  public static TransformationCache get() {
+    return instance;
+  }
+
+  // Visible for testing
+  static void setInstance(@Nullable TransformationCache cache) {
+    instance = cache;
+  }
+
+  // Visible for testing
+  TransformationCache(Path file) throws IOException {
+    this.file = file;
+    this.ignoredClasses = load(file);
+    logger.log(
+        FINE, "Loaded {0} ignored classes from {1}", new Object[] {ignoredClasses.size, file});
+  }
+
+  /**
+   * Returns the key that identifies the class that is being defined, or {@code null} if the class
+   * can't be cached.
+   */
+  @Nullable
+  public long[] computeKey(
+      ClassLoader classLoader,
+      String className,
+      byte[] classBytes,
+      int offset,
+      int length,
+      Set<String> superNames) {
+    long[] classLoaderSignature =
+        classLoaderSignatures.computeIfAbsent(classLoader, TransformationCache::signature);
+    if (classLoaderSignature == NOT_CACHEABLE) {
+      return null;
+    }
+    long startNanos = System.nanoTime();
+    CRC32 classBytesCrc = new CRC32();
+    classBytesCrc.update(classBytes, offset, length);
+    Adler32 classBytesAdler = new Adler32();
+    classBytesAdler.update(classBytes, offset, length);
+    CRC32 namesCrc = new CRC32();
+    namesCrc.update(className.getBytes(UTF_8));
+    List<String> sortedSuperNames = new ArrayList<>(superNames);
+    Collections.sort(sortedSuperNames);
+    for (String superName : sortedSuperNames) {
+      namesCrc.update(0);
+      namesCrc.update(superName.getBytes(UTF_8));
+    }
+    long high = classBytesCrc.getValue() << 32 | classBytesAdler.getValue();
+    long low = namesCrc.getValue() << 32 | (length & 0x7fffffffL) << 1;
+    computedKeys.incrementAndGet();
+    computeKeyNanos.addAndGet(System.nanoTime() - startNanos);
+    // the lowest bit is always set, so that a key is never all zeros
+    return new long[] {high ^ classLoaderSignature[0], (low ^ classLoaderSignature[1]) | 1};
+  }
+
+  /** Returns {@code true} if no transformation matched the class on a previous run. */
+  public boolean isIgnored(long[] key) {
+    if (ignoredClasses.contains(key[0], key[1])) {
+      hits.incrementAndGet();
+      return true;
+    }
+    return false;
+  }
+
+  /** Records that no transformation matched the class. */
+  public void recordIgnored(long[] key) {
+    if (ignoredClasses.contains(key[0], key[1])) {
+      return;
+    }
+    pending.add(key);
+    if (recorded.incrementAndGet() % FLUSH_THRESHOLD == 0
+        // a class may be loaded while we are writing the cache file
+        && !flushLock.isHeldByCurrentThread()
+        && flushLock.tryLock()) {
+      try {
+        write();
+      } finally {
+        flushLock.unlock();
+      }
+    }
+  }
+
+  /** Returns a matcher that ignores the classes that no transformation matched previously. */
+  public AgentBuilder.RawMatcher ignoredMatcher() {
+    return (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) -> {
+      if (classBeingRedefined != null) {
+        return false;
+      }
+      long[] key = DefineClassHandler.computeTransformationCacheKey(typeDescription.getName());
+      return key != null && isIgnored(key);
+    };
+  }
+
+  /**
+   * Returns a listener that records the classes that no transformation matched, of the classes
+   * that reached the {@link #ignoredMatcher()}.
+   */
+  public AgentBuilder.Listener listener() {
+    return new AgentBuilder.Listener.Adapter() {
+      @Override
+      public void onIgnored(
+          TypeDescription typeDescription,
+          @Nullable ClassLoader classLoader,
+          @Nullable JavaModule module,
+          boolean loaded) {
+        if (loaded) {
+          return;
+        }
+        long[] key = DefineClassHandler.getTransformationCacheKey(typeDescription.getName());
+        if (key != null) {
+          recordIgnored(key);
+        }
+      }
+    };
+  }
+
+  void flush() {
+    flushLock.lock();
+    try {
+      write();
+    } finally {
+      flushLock.unlock();
+    }
+    logger.log(
+        FINE,
+        "Transformation cache ignored {0} classes, recorded {1} new ignored classes, computed {2}"
+            + " keys in {3} ms",
+        new Object[] {
+          hits.get(),
+          recorded.get(),
+          computedKeys.get(),
+          TimeUnit.NANOSECONDS.toMillis(computeKeyNanos.get())
+        });
+  }
+
+  private void write() {
+    List<long[]> keys = new ArrayList<>();
+    for (long[] key = pending.poll(); key != null; key = pending.poll()) {
+      keys.add(key);
+    }
+    if (keys.isEmpty()) {
+      return;
+    }
+    try (FileChannel channel =
+            FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock ignored = channel.lock()) {
+      // a JVM that crashed while writing may have left a partial key at the end of the file
+      long position = channel.size() - channel.size() % KEY_SIZE;
+      if (position / KEY_SIZE + keys.size() > MAX_KEYS) {
+        return;
+      }
+      channel.truncate(position);
+      ByteBuffer buffer = ByteBuffer.allocate(keys.size() * KEY_SIZE);
+      for (long[] key : keys) {
+        buffer.putLong(key[0]).putLong(key[1]);
+      }
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        position += channel.write(buffer, position);
+      }
+    } catch (IOException e) {
+      logger.log(FINE, "Failed to write transformation cache " + file, e);
+    }
+  }
+
+  private static KeySet load(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        FileLock ignored = channel.lock(0, Long.MAX_VALUE, true)) {
+      long size = Math.min(channel.size(), (long) MAX_KEYS * KEY_SIZE);
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      return new KeySet(buffer);
+    } catch (NoSuchFileException e) {
+      return new KeySet(ByteBuffer.allocate(0));
+    }
+  }
+
+  private static long[] signature(ClassLoader classLoader) {
+    ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+    MessageDigest digest = newDigest();
+    for (ClassLoader cl = classLoader; cl != null; cl = cl.getParent()) {
+      digest.update(cl.getClass().getName().getBytes(UTF_8));
+      if (cl == systemClassLoader) {
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+          if (!entry.isEmpty() && !update(digest, entry, new File(entry))) {
+            return NOT_CACHEABLE;
+          }
+        }
+      } else if (cl == systemClassLoader.getParent()) {
+        // the platform class loader, only loads classes from the jdk
+      } else if (cl instanceof URLClassLoader) {
+        for (URL url : ((URLClassLoader) cl).getURLs()) {
+          File file = ClassPathFiles.localFile(url);
+          if (file == null || !update(digest, url.toString(), file)) {
+            return NOT_CACHEABLE;
+          }
+        }
+      } else {
+        return NOT_CACHEABLE;
+      }
+    }
+    ByteBuffer hash = ByteBuffer.wrap(digest.digest());
+    return new long[] {hash.getLong(), hash.getLong()};
+  }
+
+  // returns false if the class path entry can change without its size or modification time
+  // changing, e.g. a directory
+  private static boolean update(MessageDigest digest, String entry, File file) {
+    if (!file.isFile()) {
+      return false;
+    }
+    digest.update(entry.getBytes(UTF_8));
+    digest.update(sizeAndModificationTime(file));
+    return true;
+  }
+
+  private static String configurationHash() {
+    MessageDigest digest = newDigest();
+    Map<String, String> configuration = new TreeMap<>();
+    configuration.put("agent.version", String.valueOf(AgentVersion.VERSION));
+    configuration.put("java.vm.version", System.getProperty("java.vm.version"));
+    for (String name : System.getProperties().stringPropertyNames()) {
+      if (name.startsWith("otel.")) {
+        configuration.put(name, System.getProperty(name));
+      }
+    }
+    for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
+      if (entry.getKey().startsWith("OTEL_")) {
+        configuration.put(entry.getKey(), entry.getValue());
+      }
+    }
+    for (Map.Entry<String, String> entry : configuration.entrySet()) {
+      digest.update((entry.getKey() + '=' + entry.getValue() + '\n').getBytes(UTF_8));
+    }
+    // the configuration file and extensions are referenced by path, their contents can change
+    for (String name : new String[] {"configuration-file", "extensions"}) {
+      String value = configuration.get("otel.javaagent." + name);
+      if (value == null) {
+        value = configuration.get("OTEL_JAVAAGENT_" + name.replace('-', '_').toUpperCase(ROOT));
+      }
+      if (value != null) {
+        for (String path : value.split(",")) {
+          File file = new File(path.trim());
+          digest.update(sizeAndModificationTime(file));
+        }
+      }
+    }
+    StringBuilder hex = new StringBuilder();
+    byte[] hash = digest.digest();
+    for (int i = 0; i < 8; i++) {
+      hex.append(String.format("%02x", hash[i]));
+    }
+    return hex.toString();
+  }
+
+  private static byte[] sizeAndModificationTime(File file) {
+    return ByteBuffer.allocate(16).putLong(file.length()).putLong(file.lastModified()).array();
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** An open addressing hash set of keys, read once from the cache file. */
+  static final class KeySet {
+    private final long[] table;
+    private final int mask;
+    final int size;
+
+    KeySet(ByteBuffer buffer) {
+      int count = buffer.remaining() / KEY_SIZE;
+      int capacity = 16;
+      while (capacity < count * 2) {
+        capacity <<= 1;
+      }
+      table = new long[capacity * 2];
+      mask = capacity - 1;
+      int added = 0;
+      for (int i = 0; i < count; i++) {
+        long high = buffer.getLong();
+        long low = buffer.getLong();
+        // skip invalid keys, the lowest bit of a key is always set
+        if ((low & 1) != 0 && add(high, low)) {
+          added++;
+        }
+      }
+      size = added;
+    }
+
+    private boolean add(long high, long low) {
+      for (int slot = slot(low); ; slot = (slot + 1) & mask) {
+        long current = table[slot * 2 + 1];
+        if (current == 0) {
+          table[slot * 2] = high;
+          table[slot * 2 + 1] = low;
+          return true;
+        }
+        if (current == low && table[slot * 2] == high) {
+          return false;
+        }
+      }
+    }
+
+    boolean contains(long high, long low) {
+      for (int slot = slot(low); ; slot = (slot + 1) & mask) {
+        long current = table[slot * 2 + 1];
+        if (current == 0) {
+          return false;
+        }
+        if (current == low && table[slot * 2] == high) {
+          return true;
+        }
+      }
+    }
+
+    private int slot(long low) {
+      return (int) (low ^ (low >>> 32)) & mask;
+    }
+  }
+}
@@ -28,18 +28,25 @@ public class IgnoredTypesMatcher extends ElementMatcher.Junction.AbstractBase<Ty
       return true;
     }
 
-    // bytecode proxies typically have $$ in their name
-    if (name.contains("$$") && !name.contains("$$Lambda$") && !name.endsWith("$$Lambda")) {
-      // allow scala anonymous classes
-      return !name.contains("$$anon$") && !name.contains("$$anonfun$");
+    // most of the markers of generated classes contain a $, searching for them can be skipped for
+    // the majority of classes that don't have a $ in their name
+    if (name.indexOf('$') != -1) {
+      // bytecode proxies typically have $$ in their name
+      if (name.contains("$$") && !name.contains("$$Lambda$") && !name.endsWith("$$Lambda")) {
+        // allow scala anonymous classes
+        return !name.contains("$$anon$") && !name.contains("$$anonfun$");
+      }
+
+      if (name.contains("$JaxbAccessor")
+          || name.contains("CGLIB$$")
+          || name.contains("$__sisu")
+          || name.contains("$$EnhancerByProxool$$")) {
+        return true;
+      }
     }
 
-    if (name.contains("$JaxbAccessor")
-        || name.contains("CGLIB$$")
-        || name.contains("javassist")
+    if (name.contains("javassist")
         || name.contains(".asm.")
-        || name.contains("$__sisu")
-        || name.contains("$$EnhancerByProxool$$")
         // glassfish ejb proxy
         // We skip instrumenting these because some instrumentations e.g. jax-rs instrument methods
         // that are annotated with @Path in an interface implemented by the class. We don't really
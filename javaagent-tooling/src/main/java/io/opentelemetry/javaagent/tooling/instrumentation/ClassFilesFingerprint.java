@@ -0,0 +1,82 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import io.opentelemetry.javaagent.tooling.util.ClassPathFiles;
+import java.io.File;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Identifies the class files that a class loader loads a set of classes from: the url of each class
+ * file together with the size and modification time of the jar (or class) file that contains it.
+ * Two class loaders with the same fingerprint load these classes from the same, unchanged files.
+ */
+final class ClassFilesFingerprint {
+
+  /**
+   * Returns the fingerprint of the class files of the given classes, or {@code null} if one of them
+   * is not loaded from a local file, e.g. it is generated at runtime.
+   *
+   * @param classNames the names of the classes, in a stable order
+   */
+  @Nullable
+  static String compute(ClassLoader classLoader, Collection<String> classNames) {
+    MessageDigest digest = newDigest();
+    Map<File, Boolean> checkedFiles = new HashMap<>();
+    for (String className : classNames) {
+      digest.update(className.getBytes(UTF_8));
+      URL url = classLoader.getResource(className.replace('.', '/') + ".class");
+      if (url == null) {
+        // the class is missing, which is part of the fingerprint too
+        digest.update((byte) 0);
+        continue;
+      }
+      digest.update(url.toString().getBytes(UTF_8));
+      if ("jrt".equals(url.getProtocol())) {
+        // jdk class, can't change while the jvm is running
+        continue;
+      }
+      File file = ClassPathFiles.localFile(url);
+      if (file == null) {
+        return null;
+      }
+      if (checkedFiles.put(file, Boolean.TRUE) == null) {
+        if (!file.isFile()) {
+          return null;
+        }
+        digest.update(sizeAndModificationTime(file));
+      }
+    }
+    StringBuilder hex = new StringBuilder();
+    for (byte b : digest.digest()) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  private static byte[] sizeAndModificationTime(File file) {
+    return ByteBuffer.allocate(16).putLong(file.length()).putLong(file.lastModified()).array();
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private ClassFilesFingerprint() {}
+}
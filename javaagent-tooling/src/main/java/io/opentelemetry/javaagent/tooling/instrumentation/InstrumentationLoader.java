@@ -55,6 +55,7 @@ public class InstrumentationLoader implements AgentExtension {
       }
     }
     logger.log(FINE, "Installed {0} instrumentation(s)", numberOfLoadedModules);
+    instrumentationModuleInstaller.startMuzzleWarmup(config);
 
     return agentBuilder;
   }
@@ -37,6 +37,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
+import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.description.annotation.AnnotationSource;
 import net.bytebuddy.description.type.TypeDescription;
@@ -55,6 +56,7 @@ public final class InstrumentationModuleInstaller {
   private final Instrumentation instrumentation;
   private final VirtualFieldImplementationInstallerFactory virtualFieldInstallerFactory =
       VirtualFieldImplementationInstallerFactory.getInstance();
+  private final MuzzleWarmup muzzleWarmup = new MuzzleWarmup();
 
   public InstrumentationModuleInstaller(Instrumentation instrumentation) {
     this.instrumentation = instrumentation;
@@ -80,6 +82,11 @@ public final class InstrumentationModuleInstaller {
     }
   }
 
+  /** Starts the muzzle warmup of the installed modules, if it is enabled. */
+  void startMuzzleWarmup(ConfigProperties config) {
+    muzzleWarmup.start(config);
+  }
+
   private AgentBuilder installIndyModule(
       InstrumentationModule instrumentationModule,
       AgentBuilder parentAgentBuilder,
@@ -115,7 +122,9 @@ public final class InstrumentationModuleInstaller {
           .injectClasses(injectedClassesCollector);
     }
 
-    MuzzleMatcher muzzleMatcher = new MuzzleMatcher(logger, instrumentationModule, config);
+    ModuleProfiler profiler = ModuleProfiling.createProfiler(instrumentationModule, config);
+    MuzzleMatcher muzzleMatcher =
+        new MuzzleMatcher(logger, instrumentationModule, config, profiler);
 
     Function<ClassLoader, List<HelperClassDefinition>> helperGenerator =
         cl -> {
@@ -142,12 +151,30 @@ public final class InstrumentationModuleInstaller {
     VirtualFieldImplementationInstaller contextProvider =
         virtualFieldInstallerFactory.create(instrumentationModule);
 
+    ElementMatcher.Junction<ClassLoader> moduleClassLoaderMatcher =
+        instrumentationModule.classLoaderMatcher();
+    ModuleActivationGate activationGate =
+        LazyModuleActivation.createGate(instrumentationModule, moduleClassLoaderMatcher, config);
+    List<ElementMatcher<ClassLoader>> classLoaderMatchers = new ArrayList<>();
     AgentBuilder agentBuilder = parentAgentBuilder;
     for (TypeInstrumentation typeInstrumentation : instrumentationModule.typeInstrumentations()) {
+      ElementMatcher.Junction<ClassLoader> classLoaderMatcher =
+          moduleClassLoaderMatcher.and(typeInstrumentation.classLoaderOptimization());
+      classLoaderMatchers.add(classLoaderMatcher);
+      if (activationGate != null) {
+        activationGate.addTypeMatchers(classLoaderMatcher, typeInstrumentation.typeMatcher());
+      }
       AgentBuilder.Identified.Extendable extendableAgentBuilder =
-          setTypeMatcher(agentBuilder, instrumentationModule, typeInstrumentation)
+          setTypeMatcher(
+                  agentBuilder,
+                  instrumentationModule,
+                  typeInstrumentation,
+                  classLoaderMatcher,
+                  activationGate,
+                  profiler)
               .and(muzzleMatcher)
               .transform(new PatchByteCodeVersionTransformer());
+      extendableAgentBuilder = addProfilerTransformer(extendableAgentBuilder, profiler);
 
       // TODO (Jonas): we are not calling
       // contextProvider.rewriteVirtualFieldsCalls(extendableAgentBuilder) anymore
@@ -168,6 +195,7 @@ public final class InstrumentationModuleInstaller {
 
       agentBuilder = extendableAgentBuilder;
     }
+    muzzleWarmup.add(muzzleMatcher, classLoaderMatchers);
     return agentBuilder;
   }
 
@@ -191,7 +219,9 @@ public final class InstrumentationModuleInstaller {
       return parentAgentBuilder;
     }
 
-    MuzzleMatcher muzzleMatcher = new MuzzleMatcher(logger, instrumentationModule, config);
+    ModuleProfiler profiler = ModuleProfiling.createProfiler(instrumentationModule, config);
+    MuzzleMatcher muzzleMatcher =
+        new MuzzleMatcher(logger, instrumentationModule, config, profiler);
     AgentBuilder.Transformer helperInjector =
         new HelperInjector(
             instrumentationModule.instrumentationName(),
@@ -202,14 +232,32 @@ public final class InstrumentationModuleInstaller {
     VirtualFieldImplementationInstaller contextProvider =
         virtualFieldInstallerFactory.create(instrumentationModule);
 
+    ElementMatcher.Junction<ClassLoader> moduleClassLoaderMatcher =
+        instrumentationModule.classLoaderMatcher();
+    ModuleActivationGate activationGate =
+        LazyModuleActivation.createGate(instrumentationModule, moduleClassLoaderMatcher, config);
+    List<ElementMatcher<ClassLoader>> classLoaderMatchers = new ArrayList<>();
     AgentBuilder agentBuilder = parentAgentBuilder;
     for (TypeInstrumentation typeInstrumentation : typeInstrumentations) {
+      ElementMatcher.Junction<ClassLoader> classLoaderMatcher =
+          moduleClassLoaderMatcher.and(typeInstrumentation.classLoaderOptimization());
+      classLoaderMatchers.add(classLoaderMatcher);
+      if (activationGate != null) {
+        activationGate.addTypeMatchers(classLoaderMatcher, typeInstrumentation.typeMatcher());
+      }
 
       AgentBuilder.Identified.Extendable extendableAgentBuilder =
-          setTypeMatcher(agentBuilder, instrumentationModule, typeInstrumentation)
+          setTypeMatcher(
+                  agentBuilder,
+                  instrumentationModule,
+                  typeInstrumentation,
+                  classLoaderMatcher,
+                  activationGate,
+                  profiler)
               .and(muzzleMatcher)
               .transform(ConstantAdjuster.instance())
               .transform(helperInjector);
+      extendableAgentBuilder = addProfilerTransformer(extendableAgentBuilder, profiler);
       extendableAgentBuilder = contextProvider.injectHelperClasses(extendableAgentBuilder);
       extendableAgentBuilder = contextProvider.rewriteVirtualFieldsCalls(extendableAgentBuilder);
       TypeTransformerImpl typeTransformer = new TypeTransformerImpl(extendableAgentBuilder);
@@ -219,6 +267,7 @@ public final class InstrumentationModuleInstaller {
 
       agentBuilder = extendableAgentBuilder;
     }
+    muzzleWarmup.add(muzzleMatcher, classLoaderMatchers);
 
     return agentBuilder;
   }
@@ -226,10 +275,10 @@ public final class InstrumentationModuleInstaller {
   private static AgentBuilder.Identified.Narrowable setTypeMatcher(
       AgentBuilder agentBuilder,
       InstrumentationModule instrumentationModule,
-      TypeInstrumentation typeInstrumentation) {
-
-    ElementMatcher.Junction<ClassLoader> moduleClassLoaderMatcher =
-        instrumentationModule.classLoaderMatcher();
+      TypeInstrumentation typeInstrumentation,
+      ElementMatcher<ClassLoader> typeClassLoaderMatcher,
+      @Nullable ModuleActivationGate activationGate,
+      @Nullable ModuleProfiler profiler) {
 
     ElementMatcher<TypeDescription> typeMatcher =
         new NamedMatcher<>(
@@ -242,17 +291,35 @@ public final class InstrumentationModuleInstaller {
             instrumentationModule.getClass().getSimpleName()
                 + "#"
                 + typeInstrumentation.getClass().getSimpleName(),
-            moduleClassLoaderMatcher.and(typeInstrumentation.classLoaderOptimization()));
-
-    return agentBuilder
-        .type(
-            new LoggingFailSafeMatcher<>(
-                typeMatcher, "Instrumentation type matcher unexpected exception: " + typeMatcher),
-            new LoggingFailSafeMatcher<>(
-                classLoaderMatcher,
-                "Instrumentation class loader matcher unexpected exception: " + classLoaderMatcher))
-        .and(
-            (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) ->
-                classLoader == null || NOT_DECORATOR_MATCHER.matches(typeDescription));
+            typeClassLoaderMatcher);
+
+    typeMatcher =
+        new LoggingFailSafeMatcher<>(
+            typeMatcher, "Instrumentation type matcher unexpected exception: " + typeMatcher);
+    classLoaderMatcher =
+        new LoggingFailSafeMatcher<>(
+            classLoaderMatcher,
+            "Instrumentation class loader matcher unexpected exception: " + classLoaderMatcher);
+    if (profiler != null) {
+      typeMatcher = profiler.timed(typeMatcher);
+      classLoaderMatcher = profiler.timed(classLoaderMatcher);
+    }
+
+    AgentBuilder.Identified.Narrowable narrowable =
+        agentBuilder
+            .type(typeMatcher, classLoaderMatcher)
+            .and(
+                (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) ->
+                    classLoader == null || NOT_DECORATOR_MATCHER.matches(typeDescription));
+    if (activationGate != null) {
+      narrowable = narrowable.and(activationGate);
+    }
+    return narrowable;
+  }
+
+  private static AgentBuilder.Identified.Extendable addProfilerTransformer(
+      AgentBuilder.Identified.Extendable agentBuilder, @Nullable ModuleProfiler profiler) {
+    // runs after muzzle, so that only the modules that actually transform the type are recorded
+    return profiler == null ? agentBuilder : agentBuilder.transform(profiler.transformer());
   }
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.util.logging.Level.FINE;
+import static java.util.logging.Level.WARNING;
+
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.AgentBuilderUtil;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * Activates instrumentation modules only when they are needed. Enabled with {@code
+ * otel.javaagent.experimental.lazy-modules.enabled}, the transformations of a module whose class
+ * loader matcher requires some classes to be present are skipped until one of these marker classes
+ * is loaded. Then the module is activated and the already loaded classes that it instruments are
+ * retransformed.
+ *
+ * <p>A module is only activated when one of its marker classes is actually loaded, a marker class
+ * that is present but never loaded leaves the module inactive.
+ */
+public final class LazyModuleActivation {
+
+  private static final Logger logger = Logger.getLogger(LazyModuleActivation.class.getName());
+
+  private static final String ENABLED_PROPERTY =
+      "otel.javaagent.experimental.lazy-modules.enabled";
+
+  private static final Map<String, List<ModuleActivationGate>> gatesByMarkerClassName =
+      new ConcurrentHashMap<>();
+  private static final Queue<ModuleActivationGate> activatedGates = new ConcurrentLinkedQueue<>();
+  private static final ThreadPoolExecutor executor = createExecutor();
+  @Nullable private static volatile Instrumentation instrumentation;
+
+  public static boolean isEnabled(ConfigProperties config) {
+    return config.getBoolean(ENABLED_PROPERTY, false);
+  }
+
+  /**
+   * Returns the activation gate for the given module, or {@code null} when lazy activation is
+   * disabled or the marker classes of the module can't be determined.
+   */
+  @Nullable
+  static ModuleActivationGate createGate(
+      InstrumentationModule instrumentationModule,
+      ElementMatcher<ClassLoader> classLoaderMatcher,
+      ConfigProperties config) {
+    if (!isEnabled(config)) {
+      return null;
+    }
+    Set<String> markerClassNames = AgentBuilderUtil.getRequiredClassNames(classLoaderMatcher);
+    if (markerClassNames.isEmpty()) {
+      return null;
+    }
+    ModuleActivationGate gate =
+        new ModuleActivationGate(instrumentationModule.instrumentationName());
+    for (String markerClassName : markerClassNames) {
+      gatesByMarkerClassName
+          .computeIfAbsent(markerClassName, k -> new CopyOnWriteArrayList<>())
+          .add(gate);
+    }
+    return gate;
+  }
+
+  /** Returns the listener that activates the modules when their marker classes are loaded. */
+  public static AgentBuilder.Listener listener() {
+    return new MarkerClassListener();
+  }
+
+  /**
+   * Activates the modules whose marker classes were loaded before the agent was installed and
+   * starts retransforming the classes of activated modules.
+   */
+  public static void start(Instrumentation inst) {
+    instrumentation = inst;
+    for (Class<?> clazz : inst.getAllLoadedClasses()) {
+      onClassLoaded(clazz.getName());
+    }
+    scheduleRetransformation();
+  }
+
+  private static void onClassLoaded(String className) {
+    List<ModuleActivationGate> gates = gatesByMarkerClassName.remove(className);
+    if (gates == null) {
+      return;
+    }
+    boolean activated = false;
+    for (ModuleActivationGate gate : gates) {
+      if (gate.activate()) {
+        logger.log(
+            FINE,
+            "Activating instrumentation module {0}, marker class {1} was loaded",
+            new Object[] {gate.getInstrumentationName(), className});
+        activatedGates.add(gate);
+        activated = true;
+      }
+    }
+    if (activated) {
+      scheduleRetransformation();
+    }
+  }
+
+  private static void scheduleRetransformation() {
+    Instrumentation inst = instrumentation;
+    if (inst != null && !activatedGates.isEmpty()) {
+      // retransforming from the thread that is loading the marker class could deadlock
+      executor.execute(() -> retransformActivated(inst));
+    }
+  }
+
+  private static void retransformActivated(Instrumentation inst) {
+    List<ModuleActivationGate> gates = new ArrayList<>();
+    for (ModuleActivationGate gate = activatedGates.poll();
+        gate != null;
+        gate = activatedGates.poll()) {
+      gates.add(gate);
+    }
+    if (gates.isEmpty()) {
+      return;
+    }
+
+    List<Class<?>> classes = new ArrayList<>();
+    for (Class<?> clazz : inst.getAllLoadedClasses()) {
+      if (inst.isModifiableClass(clazz) && matchesAny(gates, clazz)) {
+        classes.add(clazz);
+      }
+    }
+    logger.log(
+        FINE,
+        "Activated {0} instrumentation module(s), retransforming {1} class(es)",
+        new Object[] {gates.size(), classes.size()});
+    if (classes.isEmpty()) {
+      return;
+    }
+    try {
+      inst.retransformClasses(classes.toArray(new Class<?>[0]));
+    } catch (Throwable t) {
+      logger.log(WARNING, "Failed to retransform classes of activated instrumentation modules", t);
+    }
+  }
+
+  private static boolean matchesAny(List<ModuleActivationGate> gates, Class<?> clazz) {
+    try {
+      for (ModuleActivationGate gate : gates) {
+        if (gate.matchesLoadedClass(clazz)) {
+          return true;
+        }
+      }
+    } catch (Throwable t) {
+      logger.log(FINE, "Failed to match class " + clazz.getName(), t);
+    }
+    return false;
+  }
+
+  private static ThreadPoolExecutor createExecutor() {
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            1,
+            TimeUnit.MINUTES,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+              Thread thread = new Thread(runnable, "otel-javaagent-lazy-module-activation");
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private static final class MarkerClassListener extends AgentBuilder.Listener.Adapter {
+    @Override
+    public void onDiscovery(
+        String typeName, ClassLoader classLoader, JavaModule module, boolean loaded) {
+      if (!gatesByMarkerClassName.isEmpty()) {
+        onClassLoaded(typeName);
+      }
+    }
+  }
+
+  private LazyModuleActivation() {}
+}
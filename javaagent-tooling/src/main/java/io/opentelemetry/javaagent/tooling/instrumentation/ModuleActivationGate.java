@@ -0,0 +1,97 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import java.security.ProtectionDomain;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * Matches only after one of the marker classes of the instrumentation module has been loaded. The
+ * transformation index skips the transformations of modules whose gate is not yet active, so that
+ * their matchers don't run for every loaded class.
+ */
+public final class ModuleActivationGate implements AgentBuilder.RawMatcher {
+
+  private final String instrumentationName;
+  private final AtomicBoolean active = new AtomicBoolean();
+  private final List<TypeMatchers> typeMatchers = new CopyOnWriteArrayList<>();
+
+  ModuleActivationGate(String instrumentationName) {
+    this.instrumentationName = instrumentationName;
+  }
+
+  public boolean isActive() {
+    return active.get();
+  }
+
+  /** Returns {@code true} when the gate was not active before. */
+  boolean activate() {
+    return active.compareAndSet(false, true);
+  }
+
+  String getInstrumentationName() {
+    return instrumentationName;
+  }
+
+  /**
+   * Adds the matchers of a type instrumentation of the module, used for finding the already loaded
+   * classes that need to be retransformed when the module is activated.
+   */
+  void addTypeMatchers(
+      ElementMatcher<ClassLoader> classLoaderMatcher, ElementMatcher<TypeDescription> typeMatcher) {
+    typeMatchers.add(new TypeMatchers(classLoaderMatcher, typeMatcher));
+  }
+
+  boolean matchesLoadedClass(Class<?> clazz) {
+    ClassLoader classLoader = clazz.getClassLoader();
+    TypeDescription typeDescription = null;
+    for (TypeMatchers matchers : typeMatchers) {
+      if (!matchers.classLoaderMatcher.matches(classLoader)) {
+        continue;
+      }
+      if (typeDescription == null) {
+        typeDescription = TypeDescription.ForLoadedType.of(clazz);
+      }
+      if (matchers.typeMatcher.matches(typeDescription)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean matches(
+      TypeDescription typeDescription,
+      ClassLoader classLoader,
+      JavaModule module,
+      Class<?> classBeingRedefined,
+      ProtectionDomain protectionDomain) {
+    return active.get();
+  }
+
+  @Override
+  public String toString() {
+    return "ModuleActivationGate{" + instrumentationName + "}";
+  }
+
+  private static final class TypeMatchers {
+    final ElementMatcher<ClassLoader> classLoaderMatcher;
+    final ElementMatcher<TypeDescription> typeMatcher;
+
+    TypeMatchers(
+        ElementMatcher<ClassLoader> classLoaderMatcher,
+        ElementMatcher<TypeDescription> typeMatcher) {
+      this.classLoaderMatcher = classLoaderMatcher;
+      this.typeMatcher = typeMatcher;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.javaagent.extension.matcher.internal.DelegatingMatcher;
+import java.util.concurrent.atomic.AtomicLong;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.matcher.ElementMatcher;
+
+/** Records how much time the agent spends on matching and transforming types for one module. */
+final class ModuleProfiler {
+
+  final Attributes attributes;
+  final AtomicLong matchingNanos = new AtomicLong();
+  final AtomicLong muzzleNanos = new AtomicLong();
+  final AtomicLong muzzleFailures = new AtomicLong();
+  final AtomicLong transformationNanos = new AtomicLong();
+  final AtomicLong transformedTypes = new AtomicLong();
+  final AtomicLong transformedBytes = new AtomicLong();
+
+  ModuleProfiler(String instrumentationName) {
+    attributes = Attributes.of(ModuleProfiling.MODULE_NAME, instrumentationName);
+  }
+
+  /** Wraps the type or class loader matcher of the module to record the time spent in it. */
+  <T> ElementMatcher<T> timed(ElementMatcher<T> matcher) {
+    return new TimedMatcher<>(matcher, this);
+  }
+
+  /**
+   * Returns a transformer that marks the type as transformed by this module. It must be applied
+   * after all matchers of the module have matched.
+   */
+  AgentBuilder.Transformer transformer() {
+    return (builder, typeDescription, classLoader, module, protectionDomain) -> {
+      ModuleProfiling.addProfiler(this);
+      return builder;
+    };
+  }
+
+  void recordMatching(long nanos) {
+    matchingNanos.addAndGet(nanos);
+    ModuleProfiling.excludeFromTransformation(nanos);
+  }
+
+  void recordMuzzle(long nanos, boolean isMatch) {
+    muzzleNanos.addAndGet(nanos);
+    if (!isMatch) {
+      muzzleFailures.incrementAndGet();
+    }
+    ModuleProfiling.excludeFromTransformation(nanos);
+  }
+
+  void recordTransformation(long nanos, int bytes) {
+    transformationNanos.addAndGet(nanos);
+    transformedTypes.incrementAndGet();
+    transformedBytes.addAndGet(bytes);
+  }
+
+  private static final class TimedMatcher<T> implements ElementMatcher<T>, DelegatingMatcher {
+    private final ElementMatcher<T> delegate;
+    private final ModuleProfiler profiler;
+
+    TimedMatcher(ElementMatcher<T> delegate, ModuleProfiler profiler) {
+      this.delegate = delegate;
+      this.profiler = profiler;
+    }
+
+    @Override
+    public boolean matches(T target) {
+      long startTime = System.nanoTime();
+      try {
+        return delegate.matches(target);
+      } finally {
+        profiler.recordMatching(System.nanoTime() - startTime);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return delegate.toString();
+    }
+
+    @Override
+    public ElementMatcher<?> getDelegate() {
+      return delegate;
+    }
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.metrics.Meter;
+import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * Records, per instrumentation module, the time spent on matching types, on muzzle checks and on
+ * transforming types, and the number and size of the transformed types. Enabled with {@code
+ * otel.javaagent.experimental.module-profiling.enabled}, the results are exported as {@code
+ * otel.agent.module.*} metrics.
+ *
+ * <p>The time spent on transforming a type is measured from the discovery of the type to the end
+ * of its transformation, excluding the time of the matchers that ran in between. When multiple
+ * modules transform the same type, the time is split evenly between them. Types that are loaded
+ * while another type is being transformed are tracked separately, and their time is excluded from
+ * the outer transformation.
+ */
+public final class ModuleProfiling {
+
+  private static final String ENABLED_PROPERTY =
+      "otel.javaagent.experimental.module-profiling.enabled";
+  static final AttributeKey<String> MODULE_NAME = AttributeKey.stringKey("otel.agent.module.name");
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  private static final List<ModuleProfiler> profilers = new CopyOnWriteArrayList<>();
+  // types can be loaded while another type is transformed, e.g. by a matcher
+  private static final ThreadLocal<Deque<CurrentTransformation>> currentTransformations =
+      ThreadLocal.withInitial(ArrayDeque::new);
+
+  public static boolean isEnabled(ConfigProperties config) {
+    return config.getBoolean(ENABLED_PROPERTY, false);
+  }
+
+  /** Returns the profiler for the given module, or {@code null} when profiling is disabled. */
+  @Nullable
+  static ModuleProfiler createProfiler(
+      InstrumentationModule instrumentationModule, ConfigProperties config) {
+    if (!isEnabled(config)) {
+      return null;
+    }
+    ModuleProfiler profiler = new ModuleProfiler(instrumentationModule.instrumentationName());
+    profilers.add(profiler);
+    return profiler;
+  }
+
+  /** Returns the listener that measures the time spent on transforming types. */
+  public static AgentBuilder.Listener listener() {
+    return new TransformationListener();
+  }
+
+  public static void registerMetrics(OpenTelemetry openTelemetry) {
+    Meter meter = openTelemetry.getMeter("io.opentelemetry.javaagent");
+    registerDuration(
+        meter,
+        "otel.agent.module.matching.duration",
+        "Time spent on matching types and class loaders",
+        profiler -> profiler.matchingNanos);
+    registerDuration(
+        meter,
+        "otel.agent.module.muzzle.duration",
+        "Time spent on muzzle checks",
+        profiler -> profiler.muzzleNanos);
+    registerDuration(
+        meter,
+        "otel.agent.module.transformation.duration",
+        "Time spent on transforming types",
+        profiler -> profiler.transformationNanos);
+    registerCount(
+        meter,
+        "otel.agent.module.muzzle.failures",
+        "Number of class loaders for which the muzzle check failed",
+        "{class_loader}",
+        profiler -> profiler.muzzleFailures);
+    registerCount(
+        meter,
+        "otel.agent.module.transformed_types",
+        "Number of transformed types",
+        "{type}",
+        profiler -> profiler.transformedTypes);
+    registerCount(
+        meter,
+        "otel.agent.module.transformed_bytes",
+        "Size of the transformed types",
+        "By",
+        profiler -> profiler.transformedBytes);
+  }
+
+  private static void registerDuration(
+      Meter meter, String name, String description, Function<ModuleProfiler, AtomicLong> value) {
+    meter
+        .counterBuilder(name)
+        .setDescription(description)
+        .setUnit("s")
+        .ofDoubles()
+        .buildWithCallback(
+            measurement -> {
+              for (ModuleProfiler profiler : profilers) {
+                measurement.record(
+                    value.apply(profiler).get() / NANOS_PER_SECOND, profiler.attributes);
+              }
+            });
+  }
+
+  private static void registerCount(
+      Meter meter,
+      String name,
+      String description,
+      String unit,
+      Function<ModuleProfiler, AtomicLong> value) {
+    meter
+        .counterBuilder(name)
+        .setDescription(description)
+        .setUnit(unit)
+        .buildWithCallback(
+            measurement -> {
+              for (ModuleProfiler profiler : profilers) {
+                measurement.record(value.apply(profiler).get(), profiler.attributes);
+              }
+            });
+  }
+
+  static void addProfiler(ModuleProfiler profiler) {
+    CurrentTransformation transformation = currentTransformations.get().peek();
+    if (transformation != null) {
+      transformation.profilers.add(profiler);
+    }
+  }
+
+  static void excludeFromTransformation(long nanos) {
+    CurrentTransformation transformation = currentTransformations.get().peek();
+    if (transformation != null) {
+      transformation.excludedNanos += nanos;
+    }
+  }
+
+  private static final class CurrentTransformation {
+    final long startTime = System.nanoTime();
+    final List<ModuleProfiler> profilers = new ArrayList<>();
+    long excludedNanos;
+  }
+
+  private static final class TransformationListener extends AgentBuilder.Listener.Adapter {
+    @Override
+    public void onDiscovery(
+        String typeName, ClassLoader classLoader, JavaModule module, boolean loaded) {
+      currentTransformations.get().push(new CurrentTransformation());
+    }
+
+    @Override
+    public void onTransformation(
+        TypeDescription typeDescription,
+        ClassLoader classLoader,
+        JavaModule module,
+        boolean loaded,
+        DynamicType dynamicType) {
+      CurrentTransformation transformation = currentTransformations.get().peek();
+      if (transformation == null || transformation.profilers.isEmpty()) {
+        return;
+      }
+      long nanos = System.nanoTime() - transformation.startTime - transformation.excludedNanos;
+      long nanosPerModule = Math.max(0, nanos) / transformation.profilers.size();
+      int bytes = dynamicType.getBytes().length;
+      for (ModuleProfiler profiler : transformation.profilers) {
+        profiler.recordTransformation(nanosPerModule, bytes);
+      }
+    }
+
+    @Override
+    public void onComplete(
+        String typeName, ClassLoader classLoader, JavaModule module, boolean loaded) {
+      Deque<CurrentTransformation> transformations = currentTransformations.get();
+      CurrentTransformation transformation = transformations.poll();
+      CurrentTransformation outer = transformations.peek();
+      if (transformation != null && outer != null) {
+        outer.excludedNanos += System.nanoTime() - transformation.startTime;
+      }
+    }
+  }
+
+  private ModuleProfiling() {}
+}
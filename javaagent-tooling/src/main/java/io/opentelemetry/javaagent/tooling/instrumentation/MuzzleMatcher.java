@@ -5,52 +5,72 @@
 
 package io.opentelemetry.javaagent.tooling.instrumentation;
 
+import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.MUZZLE_EVALUATION;
+import static io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics.CounterNames.MUZZLE_EVALUATION_AVOIDED;
 import static java.util.logging.Level.FINE;
 import static java.util.logging.Level.WARNING;
 import static net.bytebuddy.dynamic.loading.ClassLoadingStrategy.BOOTSTRAP_LOADER;
 
+import io.opentelemetry.instrumentation.api.internal.SupportabilityMetrics;
 import io.opentelemetry.instrumentation.api.internal.cache.Cache;
 import io.opentelemetry.javaagent.extension.instrumentation.InstrumentationModule;
 import io.opentelemetry.javaagent.tooling.TransformSafeLogger;
 import io.opentelemetry.javaagent.tooling.Utils;
 import io.opentelemetry.javaagent.tooling.config.AgentConfig;
 import io.opentelemetry.javaagent.tooling.instrumentation.indy.IndyModuleRegistry;
-import io.opentelemetry.javaagent.tooling.instrumentation.indy.InstrumentationModuleClassLoader;
 import io.opentelemetry.javaagent.tooling.muzzle.Mismatch;
 import io.opentelemetry.javaagent.tooling.muzzle.ReferenceMatcher;
 import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.lang.ref.WeakReference;
 import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.utility.JavaModule;
 
 /**
  * A ByteBuddy matcher that decides whether this instrumentation should be applied. Calls generated
  * {@link ReferenceMatcher}: if any mismatch with the passed {@code classLoader} is found this
- * instrumentation is skipped.
+ * instrumentation is skipped. The result is also remembered by the fingerprint of the class files
+ * that the referenced classes are loaded from, so that it can be reused for other class loaders
+ * with the same parent that load the same jars.
  */
 class MuzzleMatcher implements AgentBuilder.RawMatcher {
 
   private static final Logger muzzleLogger = Logger.getLogger(MuzzleMatcher.class.getName());
+  private static final SupportabilityMetrics supportability = SupportabilityMetrics.instance();
+  // the number of distinct sets of jars that results are remembered for, the oldest result is
+  // dropped when a new one is added
+  private static final int MAX_FINGERPRINTED_RESULTS = 16;
 
   private final TransformSafeLogger instrumentationLogger;
   private final InstrumentationModule instrumentationModule;
   private final Level muzzleLogLevel;
-  private final AtomicBoolean initialized = new AtomicBoolean(false);
   private final Cache<ClassLoader, Boolean> matchCache = Cache.weak();
-  private volatile ReferenceMatcher referenceMatcher;
+  @Nullable private volatile ReferenceMatcher referenceMatcher;
+  private final List<FingerprintedResult> fingerprintedResults = new CopyOnWriteArrayList<>();
+  @Nullable private final ModuleProfiler profiler;
 
   MuzzleMatcher(
       TransformSafeLogger instrumentationLogger,
       InstrumentationModule instrumentationModule,
-      ConfigProperties config) {
+      ConfigProperties config,
+      @Nullable ModuleProfiler profiler) {
     this.instrumentationLogger = instrumentationLogger;
     this.instrumentationModule = instrumentationModule;
     this.muzzleLogLevel = AgentConfig.isDebugModeEnabled(config) ? WARNING : FINE;
+    this.profiler = profiler;
   }
 
   @Override
@@ -63,24 +83,112 @@ class MuzzleMatcher implements AgentBuilder.RawMatcher {
     if (classLoader == BOOTSTRAP_LOADER) {
       classLoader = Utils.getBootstrapProxy();
     }
-    if (instrumentationModule.isIndyModule()) {
-      return matchCache.computeIfAbsent(
-          classLoader,
-          cl -> {
-            InstrumentationModuleClassLoader moduleCl =
-                IndyModuleRegistry.createInstrumentationClassLoaderWithoutRegistration(
-                    instrumentationModule, cl);
-            return doesMatch(moduleCl);
-          });
-    } else {
-      return matchCache.computeIfAbsent(classLoader, this::doesMatch);
+    return matchCache.computeIfAbsent(classLoader, this::doesMatch);
+  }
+
+  /**
+   * Creates the reference matcher and, if any of the given class loader matchers matches, runs the
+   * muzzle check for the given class loader, so that it does not need to be done when the class
+   * loader loads the first instrumented class.
+   */
+  void warmUp(ClassLoader classLoader, List<ElementMatcher<ClassLoader>> classLoaderMatchers) {
+    getReferenceMatcher();
+    for (ElementMatcher<ClassLoader> classLoaderMatcher : classLoaderMatchers) {
+      if (classLoaderMatcher.matches(classLoader)) {
+        matchCache.computeIfAbsent(classLoader, this::doesMatch);
+        return;
+      }
     }
   }
 
   private boolean doesMatch(ClassLoader classLoader) {
+    if (profiler == null) {
+      return evaluate(classLoader);
+    }
+    long startTime = System.nanoTime();
+    boolean isMatch = evaluate(classLoader);
+    profiler.recordMuzzle(System.nanoTime() - startTime, isMatch);
+    return isMatch;
+  }
+
+  private boolean evaluate(ClassLoader classLoader) {
+    // class loaders that load the referenced classes from the same jars have the same result, e.g.
+    // the class loaders of multiple deployments of the same application
+    boolean fingerprintable = classLoader != Utils.getBootstrapProxy();
+    Map<List<String>, String> fingerprints = new HashMap<>();
+    if (fingerprintable) {
+      Boolean isMatch = findFingerprintedResult(classLoader, fingerprints);
+      if (isMatch != null) {
+        supportability.incrementCounter(MUZZLE_EVALUATION_AVOIDED);
+        logResult(classLoader, isMatch, null);
+        return isMatch;
+      }
+    }
+
+    ClassLoader muzzleClassLoader = classLoader;
+    if (instrumentationModule.isIndyModule()) {
+      muzzleClassLoader =
+          IndyModuleRegistry.createInstrumentationClassLoaderWithoutRegistration(
+              instrumentationModule, classLoader);
+    }
     ReferenceMatcher muzzle = getReferenceMatcher();
-    boolean isMatch = muzzle.matches(classLoader);
+    boolean isMatch;
+    if (fingerprintable) {
+      Set<String> referencedClassNames = new HashSet<>();
+      isMatch = muzzle.matches(muzzleClassLoader, referencedClassNames);
+      List<String> classNames = new ArrayList<>(referencedClassNames);
+      Collections.sort(classNames);
+      String fingerprint =
+          fingerprints.computeIfAbsent(
+              classNames, names -> ClassFilesFingerprint.compute(classLoader, names));
+      if (fingerprint != null) {
+        addFingerprintedResult(
+            new FingerprintedResult(classLoader.getParent(), classNames, fingerprint, isMatch));
+      }
+    } else {
+      isMatch = muzzle.matches(muzzleClassLoader);
+    }
+    supportability.incrementCounter(MUZZLE_EVALUATION);
+    logResult(classLoader, isMatch, muzzleClassLoader);
+    return isMatch;
+  }
 
+  private synchronized void addFingerprintedResult(FingerprintedResult result) {
+    // the results for class loaders whose parent was collected, e.g. because the application
+    // server was redeployed, can't be used anymore
+    fingerprintedResults.removeIf(FingerprintedResult::isParentCollected);
+    if (fingerprintedResults.size() >= MAX_FINGERPRINTED_RESULTS) {
+      fingerprintedResults.remove(0);
+    }
+    fingerprintedResults.add(result);
+  }
+
+  @Nullable
+  private Boolean findFingerprintedResult(
+      ClassLoader classLoader, Map<List<String>, String> fingerprints) {
+    ClassLoader parent = classLoader.getParent();
+    for (FingerprintedResult result : fingerprintedResults) {
+      // only class loaders with the same parent, e.g. the class loaders of the deployments on the
+      // same application server, are likely to load the classes from the same jars; this bounds
+      // the number of fingerprints that are computed for a class loader that doesn't match any
+      if (!result.hasParent(parent)) {
+        continue;
+      }
+      // usually all results depend on the same classes
+      String fingerprint =
+          fingerprints.computeIfAbsent(
+              result.classNames,
+              classNames -> ClassFilesFingerprint.compute(classLoader, classNames));
+      if (result.fingerprint.equals(fingerprint)) {
+        return result.isMatch;
+      }
+    }
+    return null;
+  }
+
+  // muzzleClassLoader is null when the result was not evaluated but found by fingerprint
+  private void logResult(
+      ClassLoader classLoader, boolean isMatch, @Nullable ClassLoader muzzleClassLoader) {
     if (!isMatch) {
       MuzzleFailureCounter.inc();
       if (muzzleLogger.isLoggable(muzzleLogLevel)) {
@@ -92,9 +200,15 @@ class MuzzleMatcher implements AgentBuilder.RawMatcher {
               instrumentationModule.getClass().getName(),
               classLoader
             });
-        List<Mismatch> mismatches = muzzle.getMismatchedReferenceSources(classLoader);
-        for (Mismatch mismatch : mismatches) {
-          muzzleLogger.log(muzzleLogLevel, "-- {0}", mismatch);
+        if (muzzleClassLoader == null) {
+          muzzleLogger.log(
+              muzzleLogLevel, "-- same referenced classes as a previously checked class loader");
+        } else {
+          List<Mismatch> mismatches =
+              getReferenceMatcher().getMismatchedReferenceSources(muzzleClassLoader);
+          for (Mismatch mismatch : mismatches) {
+            muzzleLogger.log(muzzleLogLevel, "-- {0}", mismatch);
+          }
         }
       }
     } else {
@@ -109,16 +223,48 @@ class MuzzleMatcher implements AgentBuilder.RawMatcher {
             });
       }
     }
-
-    return isMatch;
   }
 
   // ReferenceMatcher is lazily created to avoid unnecessarily loading the muzzle references from
   // the module during the agent setup
   private ReferenceMatcher getReferenceMatcher() {
-    if (initialized.compareAndSet(false, true)) {
-      referenceMatcher = ReferenceMatcher.of(instrumentationModule);
+    ReferenceMatcher matcher = referenceMatcher;
+    if (matcher == null) {
+      synchronized (this) {
+        matcher = referenceMatcher;
+        if (matcher == null) {
+          matcher = ReferenceMatcher.of(instrumentationModule);
+          referenceMatcher = matcher;
+        }
+      }
+    }
+    return matcher;
+  }
+
+  private static final class FingerprintedResult {
+    // null when the parent is the bootstrap class loader
+    @Nullable private final WeakReference<ClassLoader> parent;
+    final List<String> classNames;
+    final String fingerprint;
+    final boolean isMatch;
+
+    FingerprintedResult(
+        @Nullable ClassLoader parent,
+        List<String> classNames,
+        String fingerprint,
+        boolean isMatch) {
+      this.parent = parent == null ? null : new WeakReference<>(parent);
+      this.classNames = classNames;
+      this.fingerprint = fingerprint;
+      this.isMatch = isMatch;
+    }
+
+    boolean hasParent(@Nullable ClassLoader classLoader) {
+      return parent == null ? classLoader == null : parent.get() == classLoader;
+    }
+
+    boolean isParentCollected() {
+      return parent != null && parent.get() == null;
     }
-    return referenceMatcher;
   }
 }
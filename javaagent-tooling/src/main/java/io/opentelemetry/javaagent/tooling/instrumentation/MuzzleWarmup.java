@@ -0,0 +1,103 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.util.logging.Level.FINE;
+
+import io.opentelemetry.sdk.autoconfigure.spi.ConfigProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import net.bytebuddy.matcher.ElementMatcher;
+
+/**
+ * Loads the muzzle references of the installed instrumentation modules and runs their class loader
+ * matchers and muzzle checks against the system class loader on a small pool of background
+ * threads. Without the warmup this work is done on the application thread that loads the first
+ * instrumented class, which often is a thread serving one of the first requests.
+ */
+final class MuzzleWarmup {
+
+  private static final Logger logger = Logger.getLogger(MuzzleWarmup.class.getName());
+
+  private static final String ENABLED_PROPERTY =
+      "otel.javaagent.experimental.muzzle-warmup.enabled";
+  private static final String PARALLELISM_PROPERTY =
+      "otel.javaagent.experimental.muzzle-warmup.parallelism";
+
+  private final List<Task> tasks = new ArrayList<>();
+
+  void add(MuzzleMatcher muzzleMatcher, List<ElementMatcher<ClassLoader>> classLoaderMatchers) {
+    tasks.add(new Task(muzzleMatcher, classLoaderMatchers));
+  }
+
+  /** Starts the warmup if it is enabled, does not wait for it to complete. */
+  void start(ConfigProperties config) {
+    List<Task> toRun = new ArrayList<>(tasks);
+    tasks.clear();
+    if (!config.getBoolean(ENABLED_PROPERTY, false) || toRun.isEmpty()) {
+      return;
+    }
+    int parallelism =
+        config.getInt(
+            PARALLELISM_PROPERTY, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    ClassLoader systemClassLoader = ClassLoader.getSystemClassLoader();
+    ForkJoinPool pool =
+        new ForkJoinPool(Math.max(1, parallelism), MuzzleWarmup::newThread, null, false);
+
+    long startTime = System.nanoTime();
+    AtomicInteger remaining = new AtomicInteger(toRun.size());
+    AtomicLong busyNanos = new AtomicLong();
+    for (Task task : toRun) {
+      pool.execute(
+          () -> {
+            long taskStartTime = System.nanoTime();
+            try {
+              task.muzzleMatcher.warmUp(systemClassLoader, task.classLoaderMatchers);
+            } catch (Throwable t) {
+              logger.log(FINE, "Muzzle warmup failed", t);
+            }
+            busyNanos.addAndGet(System.nanoTime() - taskStartTime);
+            if (remaining.decrementAndGet() == 0) {
+              pool.shutdown();
+              if (logger.isLoggable(FINE)) {
+                logger.log(
+                    FINE,
+                    "Muzzle warmup of {0} instrumentation module(s) completed in {1} ms, moved {2}"
+                        + " ms of class loading work off application threads",
+                    new Object[] {
+                      toRun.size(),
+                      TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime),
+                      TimeUnit.NANOSECONDS.toMillis(busyNanos.get())
+                    });
+              }
+            }
+          });
+    }
+  }
+
+  private static ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+    // fork join worker threads are daemon threads, the warmup does not keep the jvm running
+    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+    thread.setName("otel-javaagent-muzzle-warmup-" + thread.getPoolIndex());
+    return thread;
+  }
+
+  private static final class Task {
+    final MuzzleMatcher muzzleMatcher;
+    final List<ElementMatcher<ClassLoader>> classLoaderMatchers;
+
+    Task(MuzzleMatcher muzzleMatcher, List<ElementMatcher<ClassLoader>> classLoaderMatchers) {
+      this.muzzleMatcher = muzzleMatcher;
+      this.classLoaderMatchers = classLoaderMatchers;
+    }
+  }
+}
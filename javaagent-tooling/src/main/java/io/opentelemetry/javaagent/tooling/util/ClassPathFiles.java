@@ -0,0 +1,54 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import javax.annotation.Nullable;
+
+/** Resolves class path entries and resources to the local files they are read from. */
+public final class ClassPathFiles {
+
+  /**
+   * Returns the local file that the class path entry or resource with the given URL is read from,
+   * e.g. the jar file for a class in a jar or the outer jar for a nested jar, or {@code null} if it
+   * is not read from a local file.
+   */
+  @Nullable
+  public static File localFile(URL url) {
+    String path = url.getPath();
+    switch (url.getProtocol()) {
+      case "file":
+        try {
+          return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+          return null;
+        }
+      case "jar":
+      case "wsjar":
+        // e.g. jar:file:/app.jar!/com/example/Example.class
+        int separator = path.indexOf("!/");
+        if (separator == -1) {
+          return null;
+        }
+        try {
+          return localFile(new URL(path.substring(0, separator)));
+        } catch (IOException e) {
+          return null;
+        }
+      case "nested":
+        // spring boot 3.2+ nested jar, e.g. nested:/app.jar/!BOOT-INF/lib/library.jar
+        separator = path.indexOf("/!");
+        return separator == -1 ? null : new File(path.substring(0, separator));
+      default:
+        return null;
+    }
+  }
+
+  private ClassPathFiles() {}
+}
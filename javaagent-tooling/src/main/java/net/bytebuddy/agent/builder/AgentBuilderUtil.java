@@ -7,20 +7,30 @@ package net.bytebuddy.agent.builder;
 
 import static java.util.logging.Level.FINE;
 
+import io.opentelemetry.javaagent.bootstrap.TransformationStats;
+import io.opentelemetry.javaagent.extension.matcher.internal.ClassNamesMatcher;
 import io.opentelemetry.javaagent.extension.matcher.internal.DelegatingMatcher;
 import io.opentelemetry.javaagent.extension.matcher.internal.DelegatingSuperTypeMatcher;
 import io.opentelemetry.javaagent.tooling.DefineClassHandler;
+import io.opentelemetry.javaagent.tooling.instrumentation.ModuleActivationGate;
+import io.opentelemetry.javaagent.tooling.util.Trie;
 import java.lang.reflect.Field;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
 import net.bytebuddy.agent.builder.AgentBuilder.Default.Transformation;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
 import net.bytebuddy.matcher.BooleanMatcher;
 import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.matcher.ErasureMatcher;
@@ -49,6 +59,8 @@ public class AgentBuilderUtil {
   private static final Field erasureMatcherField = getField(ErasureMatcher.class, "matcher");
   private static final Field conjunctionMatchersField =
       getField(ElementMatcher.Junction.Conjunction.class, "matchers");
+  private static final Field disjunctionMatchersField =
+      getField(ElementMatcher.Junction.Disjunction.class, "matchers");
   private static final Field stringMatcherValueField = getField(StringMatcher.class, "value");
   private static final Field stringMatcherModeField = getField(StringMatcher.class, "mode");
   private static final Field stringSetMatcherValuesField =
@@ -58,7 +70,9 @@ public class AgentBuilderUtil {
 
   /**
    * Replaces byte buddy transformer list with a proxy that does not return the transformers that we
-   * know are not going to match for currently transformed class.
+   * know are not going to match for currently transformed class. The matchers are decomposed into
+   * an index of class names, class name prefixes and super type names, so that for each loaded
+   * class only the transformations that may apply to it are run.
    */
   public static AgentBuilder optimize(AgentBuilder agentBuilder) {
     try {
@@ -72,25 +86,22 @@ public class AgentBuilderUtil {
   }
 
   private static void optimize(AgentBuilder.Default agentBuilder) throws Exception {
-    // class names that have a matcher that matches by name
-    Set<String> classNames = new HashSet<>();
-    // class names that have a matcher that matches subtypes
-    Set<String> superTypeNames = new HashSet<>();
-    List<Transformation> unoptimizedTransformations = new ArrayList<>();
     List<Transformation> transformations = agentBuilder.transformations;
-    for (Transformation transformation : transformations) {
-      AgentBuilder.RawMatcher matcher = transformation.getMatcher();
-      // attempt to decompose the matcher and find if it applies to a named class or a subclass
+    TransformationIndex index = new TransformationIndex(transformations);
+    for (int i = 0; i < transformations.size(); i++) {
+      AgentBuilder.RawMatcher matcher = transformations.get(i).getMatcher();
+      index.setActivationGate(i, findActivationGate(matcher));
+      // attempt to decompose the matcher and find if it applies to a named class, a class whose
+      // name starts with a prefix or a subclass
       Result result = inspect(matcher);
       if (result == null) {
         // we were not able to decompose the matcher
-        unoptimizedTransformations.add(transformation);
-      } else if (result.subtype) {
-        superTypeNames.addAll(result.names);
+        index.addUnindexed(i);
       } else {
-        classNames.addAll(result.names);
+        index.add(i, result);
       }
     }
+    index.build();
 
     List<?> list =
         (List<?>)
@@ -101,30 +112,7 @@ public class AgentBuilderUtil {
                   String name = TransformContext.getTransformedClassName();
                   // iterator() is the only method we expect to be called on this List
                   if (name != null && "iterator".equals(method.getName())) {
-                    // we know that this class is going to be transformed
-                    if (classNames.contains(name) || superTypeNames.contains(name)) {
-                      return transformations.iterator();
-                    }
-                    // we already know that loading this class is going to fail, no need to
-                    // transform it
-                    if (DefineClassHandler.isFailedClass(name)) {
-                      return Collections.emptyIterator();
-                    }
-                    Set<String> loadingSuperTypes = DefineClassHandler.getSuperTypes();
-                    // super types set should contain at least java.lang.Object if this set is
-                    // empty something unexpected has happened, run all transformations
-                    if (loadingSuperTypes.isEmpty()) {
-                      return transformations.iterator();
-                    }
-                    for (String className : loadingSuperTypes) {
-                      // we know that this class is going to be transformed
-                      if (superTypeNames.contains(className)) {
-                        return transformations.iterator();
-                      }
-                    }
-
-                    // apply only the transformations that we can't decompose
-                    return unoptimizedTransformations.iterator();
+                    return index.iterator(name);
                   }
 
                   return method.invoke(transformations, args);
@@ -133,6 +121,192 @@ public class AgentBuilderUtil {
     agentBuilderTransformationsField.set(agentBuilder, list);
   }
 
+  /**
+   * Maps class names, class name prefixes and super type names to the transformations whose
+   * matchers can only match classes with that name, prefix or super type. For a class that is
+   * being loaded only the transformations found in the index and the transformations whose
+   * matchers couldn't be decomposed need to be run, minus the transformations of instrumentation
+   * modules that haven't been activated yet.
+   */
+  private static class TransformationIndex {
+    private final List<Transformation> transformations;
+    private final ModuleActivationGate[] activationGates;
+    private boolean hasGatedUnindexed;
+    private final Map<String, BitSet> classNames = new HashMap<>();
+    private final Map<String, BitSet> classNamePrefixes = new HashMap<>();
+    private final Map<String, BitSet> superTypeNames = new HashMap<>();
+    private final BitSet unindexed = new BitSet();
+    private final List<Transformation> unindexedTransformations = new ArrayList<>();
+    private Trie<BitSet> classNamePrefixTrie = Trie.<BitSet>builder().build();
+
+    TransformationIndex(List<Transformation> transformations) {
+      this.transformations = transformations;
+      this.activationGates = new ModuleActivationGate[transformations.size()];
+    }
+
+    void setActivationGate(int transformation, @Nullable ModuleActivationGate activationGate) {
+      activationGates[transformation] = activationGate;
+    }
+
+    void addUnindexed(int transformation) {
+      unindexed.set(transformation);
+      unindexedTransformations.add(transformations.get(transformation));
+      if (activationGates[transformation] != null) {
+        hasGatedUnindexed = true;
+      }
+    }
+
+    void add(int transformation, Result result) {
+      add(classNames, result.names, transformation);
+      add(classNamePrefixes, result.prefixes, transformation);
+      add(superTypeNames, result.superTypeNames, transformation);
+    }
+
+    private static void add(Map<String, BitSet> index, Set<String> keys, int transformation) {
+      for (String key : keys) {
+        index.computeIfAbsent(key, k -> new BitSet()).set(transformation);
+      }
+    }
+
+    void build() {
+      // the trie only returns the value of the longest matching prefix, so that value must also
+      // contain the transformations of all the shorter prefixes
+      Trie.Builder<BitSet> builder = Trie.builder();
+      for (String prefix : classNamePrefixes.keySet()) {
+        BitSet candidates = new BitSet();
+        for (Map.Entry<String, BitSet> entry : classNamePrefixes.entrySet()) {
+          if (prefix.startsWith(entry.getKey())) {
+            candidates.or(entry.getValue());
+          }
+        }
+        builder.put(prefix, candidates);
+      }
+      classNamePrefixTrie = builder.build();
+
+      if (logger.isLoggable(FINE)) {
+        logger.log(
+            FINE,
+            "Indexed {0} of {1} transformations by {2} class names, {3} class name prefixes and"
+                + " {4} super type names",
+            new Object[] {
+              transformations.size() - unindexedTransformations.size(),
+              transformations.size(),
+              classNames.size(),
+              classNamePrefixes.size(),
+              superTypeNames.size()
+            });
+      }
+    }
+
+    Iterator<Transformation> iterator(String name) {
+      BitSet candidates = union(null, classNames.get(name));
+      candidates = union(candidates, classNamePrefixTrie.getOrNull(name));
+      candidates = union(candidates, superTypeNames.get(name));
+      // we already know that loading this class is going to fail, no need to transform it
+      if (candidates == null && DefineClassHandler.isFailedClass(name)) {
+        return Collections.emptyIterator();
+      }
+      Set<String> loadingSuperTypes = DefineClassHandler.getSuperTypes();
+      // super types set should contain at least java.lang.Object if this set is empty something
+      // unexpected has happened, run all transformations
+      if (loadingSuperTypes.isEmpty()) {
+        return transformations.iterator();
+      }
+      for (String className : loadingSuperTypes) {
+        candidates = union(candidates, superTypeNames.get(className));
+      }
+
+      if (candidates == null) {
+        TransformationStats.recordSkipped();
+        // apply only the transformations that we can't decompose
+        if (!hasGatedUnindexed) {
+          return unindexedTransformations.iterator();
+        }
+        candidates = (BitSet) unindexed.clone();
+      } else {
+        TransformationStats.recordCandidate();
+        candidates.or(unindexed);
+      }
+
+      // preserve the order in which the transformations were registered
+      List<Transformation> result = new ArrayList<>(candidates.cardinality());
+      boolean skippedInactive = false;
+      for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+        ModuleActivationGate activationGate = activationGates[i];
+        if (activationGate == null || activationGate.isActive()) {
+          result.add(transformations.get(i));
+        } else {
+          skippedInactive = true;
+        }
+      }
+      if (skippedInactive) {
+        // the module may be active on the next run, the class must not be remembered as one that
+        // no transformation matched
+        DefineClassHandler.excludeFromTransformationCache(name);
+      }
+      return result.iterator();
+    }
+
+    @Nullable
+    private static BitSet union(@Nullable BitSet candidates, @Nullable BitSet transformations) {
+      if (transformations == null) {
+        return candidates;
+      }
+      if (candidates == null) {
+        // copy, the index must not be modified
+        return (BitSet) transformations.clone();
+      }
+      candidates.or(transformations);
+      return candidates;
+    }
+  }
+
+  @Nullable
+  private static ModuleActivationGate findActivationGate(AgentBuilder.RawMatcher matcher)
+      throws Exception {
+    if (matcher instanceof ModuleActivationGate) {
+      return (ModuleActivationGate) matcher;
+    } else if (matcher instanceof AgentBuilder.RawMatcher.Conjunction) {
+      for (AgentBuilder.RawMatcher delegate : getDelegateMatchers(matcher)) {
+        ModuleActivationGate activationGate = findActivationGate(delegate);
+        if (activationGate != null) {
+          return activationGate;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the names of the classes that a class loader must have for the given class loader
+   * matcher to match, or an empty set when they can't be determined.
+   */
+  public static Set<String> getRequiredClassNames(ElementMatcher<?> classLoaderMatcher) {
+    Set<String> classNames = new HashSet<>();
+    try {
+      collectRequiredClassNames(classLoaderMatcher, classNames);
+    } catch (Exception exception) {
+      logger.log(FINE, "Could not decompose class loader matcher " + classLoaderMatcher, exception);
+      return Collections.emptySet();
+    }
+    return classNames;
+  }
+
+  private static void collectRequiredClassNames(ElementMatcher<?> matcher, Set<String> classNames)
+      throws Exception {
+    if (matcher instanceof ClassNamesMatcher) {
+      classNames.addAll(((ClassNamesMatcher) matcher).getClassNames());
+    } else if (matcher instanceof DelegatingMatcher) {
+      collectRequiredClassNames(((DelegatingMatcher) matcher).getDelegate(), classNames);
+    } else if (matcher instanceof ElementMatcher.Junction.Conjunction) {
+      // every element of a conjunction must match, so all of the class names are required
+      for (ElementMatcher<?> elementMatcher :
+          getDelegateMatchers((ElementMatcher.Junction.Conjunction<?>) matcher)) {
+        collectRequiredClassNames(elementMatcher, classNames);
+      }
+    }
+  }
+
   @Nullable
   private static Result inspect(AgentBuilder.RawMatcher matcher) throws Exception {
     if (matcher instanceof AgentBuilder.RawMatcher.Conjunction) {
@@ -179,6 +353,19 @@ public class AgentBuilderUtil {
           return result;
         }
       }
+    } else if (matcher instanceof ElementMatcher.Junction.Disjunction) {
+      // a disjunction can only be decomposed when all of its elements can be decomposed
+      Result result = new Result();
+      List<ElementMatcher<?>> matchers =
+          getDelegateMatchers((ElementMatcher.Junction.Disjunction<?>) matcher);
+      for (ElementMatcher<?> elementMatcher : matchers) {
+        Result elementResult = inspect(elementMatcher);
+        if (elementResult == null) {
+          return null;
+        }
+        result.addAll(elementResult);
+      }
+      return result.isEmpty() ? null : result;
     }
 
     return null;
@@ -188,8 +375,13 @@ public class AgentBuilderUtil {
   private static Result inspectNameMatcher(NameMatcher<?> nameMatcher) throws Exception {
     ElementMatcher<?> matcher = getDelegateMatcher(nameMatcher);
     if (matcher instanceof StringMatcher) {
-      String value = getStringMatcherValue((StringMatcher) matcher);
-      return Result.named(value);
+      StringMatcher stringMatcher = (StringMatcher) matcher;
+      StringMatcher.Mode mode = getStringMatcherMode(stringMatcher);
+      if (mode == StringMatcher.Mode.EQUALS_FULLY) {
+        return Result.named(getStringMatcherValue(stringMatcher));
+      } else if (mode == StringMatcher.Mode.STARTS_WITH) {
+        return Result.prefixed(getStringMatcherValue(stringMatcher));
+      }
     } else if (matcher instanceof StringSetMatcher) {
       Set<String> value = getStringSetMatcherValue((StringSetMatcher) matcher);
       return Result.named(value);
@@ -199,27 +391,33 @@ public class AgentBuilderUtil {
   }
 
   private static class Result {
+    // names of the classes the matcher matches
     final Set<String> names = new HashSet<>();
-    // true if matcher matches based on type hierarchy
-    // false if matcher matches based on type name
-    final boolean subtype;
-
-    private Result(boolean subtype) {
-      this.subtype = subtype;
+    // prefixes of the names of the classes the matcher matches
+    final Set<String> prefixes = new HashSet<>();
+    // names of the super types of the classes the matcher matches
+    final Set<String> superTypeNames = new HashSet<>();
+
+    void addAll(Result other) {
+      names.addAll(other.names);
+      prefixes.addAll(other.prefixes);
+      superTypeNames.addAll(other.superTypeNames);
     }
 
-    private Result() {
-      this(false);
+    boolean isEmpty() {
+      return names.isEmpty() && prefixes.isEmpty() && superTypeNames.isEmpty();
     }
 
     @Nullable
     static Result subtype(@Nullable Result value) {
-      if (value == null) {
+      // super types are only indexed by name
+      if (value == null || !value.prefixes.isEmpty()) {
         return null;
       }
 
-      Result result = new Result(true);
-      result.names.addAll(value.names);
+      Result result = new Result();
+      result.superTypeNames.addAll(value.names);
+      result.superTypeNames.addAll(value.superTypeNames);
       return result;
     }
 
@@ -243,9 +441,20 @@ public class AgentBuilderUtil {
       return result;
     }
 
+    @Nullable
+    static Result prefixed(@Nullable String value) {
+      // an empty prefix matches everything
+      if (value == null || value.isEmpty()) {
+        return null;
+      }
+      Result result = new Result();
+      result.prefixes.add(value);
+      return result;
+    }
+
     @Override
     public String toString() {
-      return (subtype ? "subtype of " : "named ") + names;
+      return "named " + names + ", prefixed " + prefixes + ", subtype of " + superTypeNames;
     }
   }
 
@@ -284,15 +493,18 @@ public class AgentBuilderUtil {
     return (List<ElementMatcher<?>>) conjunctionMatchersField.get(matcher);
   }
 
-  /**
-   * @return the value given string matcher matches when matcher mode is
-   *     StringMatcher.Mode.EQUALS_FULLY, null otherwise
-   */
-  @Nullable
+  @SuppressWarnings("unchecked")
+  private static List<ElementMatcher<?>> getDelegateMatchers(
+      ElementMatcher.Junction.Disjunction<?> matcher) throws Exception {
+    return (List<ElementMatcher<?>>) disjunctionMatchersField.get(matcher);
+  }
+
   private static String getStringMatcherValue(StringMatcher matcher) throws Exception {
-    String value = (String) stringMatcherValueField.get(matcher);
-    StringMatcher.Mode mode = (StringMatcher.Mode) stringMatcherModeField.get(matcher);
-    return mode == StringMatcher.Mode.EQUALS_FULLY ? value : null;
+    return (String) stringMatcherValueField.get(matcher);
+  }
+
+  private static StringMatcher.Mode getStringMatcherMode(StringMatcher matcher) throws Exception {
+    return (StringMatcher.Mode) stringMatcherModeField.get(matcher);
   }
 
   @SuppressWarnings("unchecked")
@@ -343,6 +555,16 @@ public class AgentBuilderUtil {
       transformedName.remove();
     }
 
+    @Override
+    public void onTransformation(
+        TypeDescription typeDescription,
+        @Nullable ClassLoader classLoader,
+        @Nullable JavaModule module,
+        boolean loaded,
+        DynamicType dynamicType) {
+      TransformationStats.recordTransformed();
+    }
+
     @Override
     public void onComplete(
         String typeName,
@@ -0,0 +1,171 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singleton;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.javaagent.bootstrap.DefineClassHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import net.bytebuddy.description.type.TypeDescription;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TransformationCacheTest {
+
+  private static final byte[] CLASS_BYTES = {1, 2, 3, 4};
+
+  @TempDir Path tempDir;
+
+  @Test
+  void ignoredClassesAreRememberedAcrossRestarts() throws IOException {
+    Path file = tempDir.resolve("cache.bin");
+    ClassLoader classLoader = classLoader(tempDir.resolve("library.jar"));
+
+    TransformationCache cache = new TransformationCache(file);
+    long[] key = computeKey(cache, classLoader, "java.lang.Object");
+    assertThat(key).isNotNull();
+    assertThat(cache.isIgnored(key)).isFalse();
+    cache.recordIgnored(key);
+    cache.flush();
+
+    TransformationCache restarted = new TransformationCache(file);
+    assertThat(restarted.isIgnored(computeKey(restarted, classLoader, "java.lang.Object")))
+        .isTrue();
+  }
+
+  @Test
+  void keyDependsOnSuperTypesAndClassPath() throws IOException {
+    TransformationCache cache = new TransformationCache(tempDir.resolve("cache.bin"));
+    ClassLoader classLoader = classLoader(tempDir.resolve("library.jar"));
+    ClassLoader otherClassLoader = classLoader(tempDir.resolve("other.jar"));
+
+    long[] key = computeKey(cache, classLoader, "java.lang.Object");
+    assertThat(computeKey(cache, classLoader, "java.lang.Object")).isEqualTo(key);
+    assertThat(computeKey(cache, classLoader, "java.lang.Runnable")).isNotEqualTo(key);
+    assertThat(computeKey(cache, otherClassLoader, "java.lang.Object")).isNotEqualTo(key);
+  }
+
+  @Test
+  void keyChangesWhenJarChanges() throws IOException {
+    TransformationCache cache = new TransformationCache(tempDir.resolve("cache.bin"));
+    Path jar = tempDir.resolve("library.jar");
+
+    long[] key = computeKey(cache, classLoader(jar), "java.lang.Object");
+    Files.write(jar, new byte[] {1, 2, 3});
+
+    ClassLoader changedClassLoader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, null);
+    assertThat(computeKey(cache, changedClassLoader, "java.lang.Object")).isNotEqualTo(key);
+  }
+
+  @Test
+  void directoriesOnClassPathAreNotCached() throws IOException {
+    TransformationCache cache = new TransformationCache(tempDir.resolve("cache.bin"));
+    ClassLoader classLoader = new URLClassLoader(new URL[] {tempDir.toUri().toURL()}, null);
+
+    assertThat(computeKey(cache, classLoader, "java.lang.Object")).isNull();
+  }
+
+  @Test
+  void partiallyWrittenKeyIsDiscarded() throws IOException {
+    Path file = tempDir.resolve("cache.bin");
+    ClassLoader classLoader = classLoader(tempDir.resolve("library.jar"));
+    TransformationCache cache = new TransformationCache(file);
+    long[] key = computeKey(cache, classLoader, "java.lang.Object");
+    cache.recordIgnored(key);
+    cache.flush();
+    // simulate a JVM that crashed while writing
+    Files.write(file, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+
+    TransformationCache restarted = new TransformationCache(file);
+    assertThat(restarted.isIgnored(key)).isTrue();
+    long[] otherKey = computeKey(restarted, classLoader, "java.lang.Runnable");
+    restarted.recordIgnored(otherKey);
+    restarted.flush();
+
+    assertThat(Files.size(file)).isEqualTo(2 * TransformationCache.KEY_SIZE);
+    TransformationCache restartedAgain = new TransformationCache(file);
+    assertThat(restartedAgain.isIgnored(key)).isTrue();
+    assertThat(restartedAgain.isIgnored(otherKey)).isTrue();
+  }
+
+  @Test
+  void recordsOnlyClassesThatReachedTheMatcher() throws IOException {
+    Path file = tempDir.resolve("cache.bin");
+    ClassLoader classLoader = classLoader(tempDir.resolve("library.jar"));
+    TransformationCache cache = new TransformationCache(file);
+    TransformationCache.setInstance(cache);
+    try {
+      defineIgnoredClass(cache, classLoader, "test.Ignored", true, false);
+      // e.g. ignored by the ignored types matcher
+      defineIgnoredClass(cache, classLoader, "test.IgnoredEarlier", false, false);
+      defineIgnoredClass(cache, classLoader, "test.SkippedInactiveModule", true, true);
+      cache.flush();
+    } finally {
+      TransformationCache.setInstance(null);
+    }
+
+    assertThat(Files.size(file)).isEqualTo(TransformationCache.KEY_SIZE);
+  }
+
+  // defines a class for which no transformation matched
+  private static void defineIgnoredClass(
+      TransformationCache cache,
+      ClassLoader classLoader,
+      String className,
+      boolean reachedMatcher,
+      boolean skippedInactiveModule)
+      throws IOException {
+    byte[] classBytes = classBytes(TransformationCacheTest.class);
+    TypeDescription typeDescription = new TypeDescription.Latent(className, 0, null);
+    DefineClassHelper.Handler.DefineClassContext context =
+        DefineClassHandler.INSTANCE.beforeDefineClass(
+            classLoader, className, classBytes, 0, classBytes.length);
+    try {
+      if (reachedMatcher) {
+        assertThat(cache.ignoredMatcher().matches(typeDescription, classLoader, null, null, null))
+            .isFalse();
+      }
+      if (skippedInactiveModule) {
+        DefineClassHandler.excludeFromTransformationCache(className);
+      }
+      cache.listener().onIgnored(typeDescription, classLoader, null, false);
+    } finally {
+      DefineClassHandler.INSTANCE.afterDefineClass(context);
+    }
+  }
+
+  private static byte[] classBytes(Class<?> clazz) throws IOException {
+    String resource = clazz.getName().replace('.', '/') + ".class";
+    try (InputStream inputStream = clazz.getClassLoader().getResourceAsStream(resource)) {
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      for (int read = inputStream.read(buffer); read != -1; read = inputStream.read(buffer)) {
+        outputStream.write(buffer, 0, read);
+      }
+      return outputStream.toByteArray();
+    }
+  }
+
+  private static long[] computeKey(
+      TransformationCache cache, ClassLoader classLoader, String superName) {
+    return cache.computeKey(
+        classLoader, "test.Class", CLASS_BYTES, 0, CLASS_BYTES.length, singleton(superName));
+  }
+
+  private static ClassLoader classLoader(Path jar) throws IOException {
+    Files.write(jar, jar.getFileName().toString().getBytes(UTF_8));
+    return new URLClassLoader(new URL[] {jar.toUri().toURL()}, null);
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.ignore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.opentelemetry.javaagent.tooling.util.Trie;
+import net.bytebuddy.description.type.TypeDescription;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class IgnoredTypesMatcherTest {
+
+  private static final IgnoredTypesMatcher matcher =
+      new IgnoredTypesMatcher(
+          Trie.<IgnoreAllow>builder()
+              .put("org.ignored.", IgnoreAllow.IGNORE)
+              .put("org.ignored.allowed.", IgnoreAllow.ALLOW)
+              .build());
+
+  @ParameterizedTest
+  @CsvSource({
+    "com.example.Service, false",
+    "org.ignored.Service, true",
+    "org.ignored.allowed.Service, false",
+    "org.ignored.allowed.Service$$EnhancerBySpringCGLIB$$1, false",
+    "com.example.Service$$EnhancerBySpringCGLIB$$1, true",
+    "com.example.Service$$Lambda$12/0x0000000800c0b000, false",
+    "com.example.Service$$Lambda, false",
+    "com.example.Service$$anon$1, false",
+    "com.example.Service$$anonfun$apply$1, false",
+    "com.example.Service$JaxbAccessorF_name, true",
+    "com.example.Service_$$_javassist_0, true",
+    "com.example.javassist.Helper, true",
+    "com.example.asm.Helper, true",
+    "com.example.Service$__sisu1, true",
+    "com.example.__EJB31_Generated__Service__Intf____Bean__, true",
+    "com.mchange.v2.c3p0.impl.NewProxyConnection, false",
+    "com.mchange.v2.c3p0.impl.ConnectionProxy, true",
+  })
+  void matches(String name, boolean ignored) {
+    assertThat(matcher.matches(new TypeDescription.Latent(name, 0, null))).isEqualTo(ignored);
+  }
+}
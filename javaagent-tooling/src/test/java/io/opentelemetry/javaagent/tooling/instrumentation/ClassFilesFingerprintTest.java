@@ -0,0 +1,81 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ClassFilesFingerprintTest {
+
+  private static final List<String> CLASS_NAMES = asList("test.Example", "java.lang.Object");
+
+  @TempDir Path tempDir;
+
+  @Test
+  void sameJarsHaveSameFingerprint() throws IOException {
+    Path jar = createJar(tempDir.resolve("library.jar"), "test/Example.class");
+
+    String fingerprint = ClassFilesFingerprint.compute(classLoader(jar), CLASS_NAMES);
+
+    assertThat(fingerprint).isNotNull();
+    assertThat(ClassFilesFingerprint.compute(classLoader(jar), CLASS_NAMES)).isEqualTo(fingerprint);
+  }
+
+  @Test
+  void differentJarsHaveDifferentFingerprints() throws IOException {
+    Path jar = createJar(tempDir.resolve("library.jar"), "test/Example.class");
+    Path otherJar = createJar(tempDir.resolve("other.jar"), "test/Example.class");
+    Path emptyJar = createJar(tempDir.resolve("empty.jar"), "test/Other.class");
+
+    String fingerprint = ClassFilesFingerprint.compute(classLoader(jar), CLASS_NAMES);
+
+    assertThat(ClassFilesFingerprint.compute(classLoader(otherJar), CLASS_NAMES))
+        .isNotEqualTo(fingerprint);
+    assertThat(ClassFilesFingerprint.compute(classLoader(emptyJar), CLASS_NAMES))
+        .isNotNull()
+        .isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  void changedJarHasDifferentFingerprint() throws IOException {
+    Path jar = createJar(tempDir.resolve("library.jar"), "test/Example.class");
+    String fingerprint = ClassFilesFingerprint.compute(classLoader(jar), CLASS_NAMES);
+
+    createJar(jar, "test/Example.class", "test/Other.class");
+
+    assertThat(ClassFilesFingerprint.compute(classLoader(jar), CLASS_NAMES))
+        .isNotEqualTo(fingerprint);
+  }
+
+  private static Path createJar(Path jar, String... entries) throws IOException {
+    try (OutputStream out = Files.newOutputStream(jar);
+        JarOutputStream jarOut = new JarOutputStream(out)) {
+      for (String entry : entries) {
+        jarOut.putNextEntry(new ZipEntry(entry));
+        jarOut.write(entry.getBytes(UTF_8));
+        jarOut.closeEntry();
+      }
+    }
+    return jar;
+  }
+
+  private static ClassLoader classLoader(Path jar) throws IOException {
+    return new URLClassLoader(new URL[] {jar.toUri().toURL()}, null);
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static io.opentelemetry.javaagent.extension.matcher.AgentElementMatchers.hasClassesNamed;
+import static net.bytebuddy.matcher.ElementMatchers.any;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import net.bytebuddy.agent.builder.AgentBuilderUtil;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.junit.jupiter.api.Test;
+
+class ModuleActivationGateTest {
+
+  @Test
+  void requiredClassNames() {
+    assertThat(AgentBuilderUtil.getRequiredClassNames(any())).isEmpty();
+    assertThat(AgentBuilderUtil.getRequiredClassNames(hasClassesNamed("a.A", "b.B")))
+        .containsExactlyInAnyOrder("a.A", "b.B");
+    // negated matchers don't require the classes to be present
+    ElementMatcher.Junction<ClassLoader> matcher =
+        hasClassesNamed("a.A").and(not(hasClassesNamed("c.C"))).and(hasClassesNamed("b.B"));
+    assertThat(AgentBuilderUtil.getRequiredClassNames(matcher))
+        .containsExactlyInAnyOrder("a.A", "b.B");
+  }
+
+  @Test
+  void matchesOnlyWhenActive() {
+    ModuleActivationGate gate = new ModuleActivationGate("test");
+
+    assertThat(gate.matches(null, null, null, null, null)).isFalse();
+    assertThat(gate.activate()).isTrue();
+    assertThat(gate.activate()).isFalse();
+    assertThat(gate.matches(null, null, null, null, null)).isTrue();
+  }
+
+  @Test
+  void matchesLoadedClass() {
+    ModuleActivationGate gate = new ModuleActivationGate("test");
+    gate.addTypeMatchers(any(), named(ModuleActivationGateTest.class.getName()));
+
+    assertThat(gate.matchesLoadedClass(ModuleActivationGateTest.class)).isTrue();
+    assertThat(gate.matchesLoadedClass(ModuleActivationGate.class)).isFalse();
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright The OpenTelemetry Authors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package io.opentelemetry.javaagent.tooling.instrumentation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.junit.jupiter.api.Test;
+
+class ModuleProfilingTest {
+
+  private static final TypeDescription TYPE = TypeDescription.ForLoadedType.of(Object.class);
+
+  @Test
+  void recordsTransformationOfAppliedModules() {
+    ModuleProfiler applied = new ModuleProfiler("applied");
+    ModuleProfiler alsoApplied = new ModuleProfiler("also-applied");
+    ModuleProfiler notApplied = new ModuleProfiler("not-applied");
+    ElementMatcher<TypeDescription> typeMatcher = notApplied.timed(type -> false);
+    DynamicType dynamicType = new ByteBuddy().subclass(Object.class).make();
+
+    AgentBuilder.Listener listener = ModuleProfiling.listener();
+    listener.onDiscovery(TYPE.getName(), null, null, false);
+    assertThat(typeMatcher.matches(TYPE)).isFalse();
+    applied.transformer().transform(null, TYPE, null, null, null);
+    alsoApplied.transformer().transform(null, TYPE, null, null, null);
+    listener.onTransformation(TYPE, null, null, false, dynamicType);
+    listener.onComplete(TYPE.getName(), null, null, false);
+
+    int bytes = dynamicType.getBytes().length;
+    assertThat(applied.transformedTypes.get()).isEqualTo(1);
+    assertThat(applied.transformedBytes.get()).isEqualTo(bytes);
+    assertThat(alsoApplied.transformedTypes.get()).isEqualTo(1);
+    assertThat(alsoApplied.transformedBytes.get()).isEqualTo(bytes);
+    assertThat(applied.transformationNanos.get()).isEqualTo(alsoApplied.transformationNanos.get());
+    assertThat(notApplied.transformedTypes.get()).isZero();
+    assertThat(notApplied.matchingNanos.get()).isPositive();
+  }
+
+  @Test
+  void recordsNestedTransformations() {
+    ModuleProfiler outer = new ModuleProfiler("outer");
+    ModuleProfiler inner = new ModuleProfiler("inner");
+    TypeDescription innerType = TypeDescription.ForLoadedType.of(String.class);
+    DynamicType dynamicType = new ByteBuddy().subclass(Object.class).make();
+
+    AgentBuilder.Listener listener = ModuleProfiling.listener();
+    listener.onDiscovery(TYPE.getName(), null, null, false);
+    outer.transformer().transform(null, TYPE, null, null, null);
+    // a type loaded while the outer type is transformed
+    listener.onDiscovery(innerType.getName(), null, null, false);
+    inner.transformer().transform(null, innerType, null, null, null);
+    listener.onTransformation(innerType, null, null, false, dynamicType);
+    listener.onComplete(innerType.getName(), null, null, false);
+    listener.onTransformation(TYPE, null, null, false, dynamicType);
+    listener.onComplete(TYPE.getName(), null, null, false);
+
+    assertThat(outer.transformedTypes.get()).isEqualTo(1);
+    assertThat(inner.transformedTypes.get()).isEqualTo(1);
+
+    // nothing is recorded once the outer transformation completed
+    outer.transformer().transform(null, TYPE, null, null, null);
+    listener.onTransformation(TYPE, null, null, false, dynamicType);
+    assertThat(outer.transformedTypes.get()).isEqualTo(1);
+  }
+
+  @Test
+  void ignoresTransformersOutsideOfListener() {
+    ModuleProfiler profiler = new ModuleProfiler("test");
+
+    profiler.transformer().transform(null, TYPE, null, null, null);
+    profiler.recordMuzzle(10, false);
+
+    assertThat(profiler.transformedTypes.get()).isZero();
+    assertThat(profiler.muzzleNanos.get()).isEqualTo(10);
+    assertThat(profiler.muzzleFailures.get()).isEqualTo(1);
+  }
+}
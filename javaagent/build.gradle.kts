@@ -5,6 +5,7 @@ import org.spdx.sbom.gradle.SpdxSbomTask
 import java.nio.file.Files
 import java.util.UUID
 import java.util.regex.Pattern
+import java.util.zip.ZipFile
 
 plugins {
   id("com.github.jk1.dependency-license-report")
@@ -184,6 +185,16 @@ tasks {
     archiveFileName.set("javaagentLibs-relocated.jar")
   }
 
+  val baseJavaagentLibsMultiReleaseIndex by registering(MultiReleaseIndex::class) {
+    jar.set(relocateBaseJavaagentLibs.flatMap { it.archiveFile })
+    indexFile.set(layout.buildDirectory.file("multi-release-index/base/multi-release.idx"))
+  }
+
+  val javaagentLibsMultiReleaseIndex by registering(MultiReleaseIndex::class) {
+    jar.set(relocateJavaagentLibs.flatMap { it.archiveFile })
+    indexFile.set(layout.buildDirectory.file("multi-release-index/full/multi-release.idx"))
+  }
+
   // Includes everything needed for OOTB experience
   val shadowJar by existing(ShadowJar::class) {
     dependsOn(buildBootstrapLibs)
@@ -191,6 +202,9 @@ tasks {
 
     dependsOn(relocateJavaagentLibs)
     isolateClasses(relocateJavaagentLibs.get().archiveFile)
+    from(javaagentLibsMultiReleaseIndex) {
+      into("inst/META-INF")
+    }
 
     duplicatesStrategy = DuplicatesStrategy.FAIL
 
@@ -215,6 +229,9 @@ tasks {
 
     dependsOn(relocateBaseJavaagentLibs)
     isolateClasses(relocateBaseJavaagentLibs.get().archiveFile)
+    from(baseJavaagentLibsMultiReleaseIndex) {
+      into("inst/META-INF")
+    }
 
     duplicatesStrategy = DuplicatesStrategy.FAIL
 
@@ -417,6 +434,33 @@ fun ShadowJar.excludeBootstrapClasses() {
   exclude("io/opentelemetry/javaagent/bootstrap/**")
 }
 
+// Lists the entries of the agent libs that have multi release jar variants, so that the agent class
+// loader does not need to look for a variant of every class that it loads.
+abstract class MultiReleaseIndex : DefaultTask() {
+  @get:InputFile
+  @get:PathSensitive(PathSensitivity.NONE)
+  abstract val jar: RegularFileProperty
+
+  @get:OutputFile
+  abstract val indexFile: RegularFileProperty
+
+  @TaskAction
+  fun generate() {
+    val versionedEntry = Pattern.compile("^META-INF/versions/(\\d+)/(.+)$")
+    val lines = sortedSetOf<String>()
+    ZipFile(jar.get().asFile).use { zip ->
+      for (entry in zip.entries()) {
+        val matcher = versionedEntry.matcher(entry.name)
+        // versioned META-INF entries are not looked up as multi release variants
+        if (!entry.isDirectory && matcher.matches() && !matcher.group(2).startsWith("META-INF/")) {
+          lines.add(matcher.group(1) + " " + matcher.group(2))
+        }
+      }
+    }
+    indexFile.get().asFile.writeText(lines.joinToString("") { it + "\n" })
+  }
+}
+
 class JavaagentProvider(
   @InputFile
   @PathSensitive(PathSensitivity.RELATIVE)
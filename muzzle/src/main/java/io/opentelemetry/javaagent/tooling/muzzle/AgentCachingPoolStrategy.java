@@ -69,13 +69,14 @@ public class AgentCachingPoolStrategy implements AgentBuilder.PoolStrategy {
    *   <li>Allow for quick fast path equivalence check of composite keys
    * </ul>
    */
-  final Cache<ClassLoader, WeakReference<ClassLoader>> loaderRefCache = Cache.weak();
+  final Cache<ClassLoader, WeakReference<ClassLoader>> loaderRefCache =
+      Cache.weak("agent-type-pool-class-loaders");
 
   /**
    * Single shared Type.Resolution cache -- uses a composite key -- conceptually of loader & name
    */
   final Cache<TypeCacheKey, TypePool.Resolution> sharedResolutionCache =
-      Cache.bounded(TYPE_CAPACITY);
+      Cache.bounded("agent-type-pool-resolutions", TYPE_CAPACITY);
 
   // fast path for bootstrap
   final SharedResolutionCacheAdapter bootstrapCacheProvider =
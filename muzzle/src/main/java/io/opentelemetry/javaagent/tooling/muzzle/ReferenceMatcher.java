@@ -21,6 +21,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import net.bytebuddy.description.field.FieldDescription;
 import net.bytebuddy.description.method.MethodDescription;
 import net.bytebuddy.description.type.TypeDescription;
@@ -87,6 +88,72 @@ public final class ReferenceMatcher {
     return mismatches;
   }
 
+  /**
+   * Same as {@link #matches(ClassLoader)}, and also adds to {@code referencedClassNames} the names
+   * of the classes from the class loader that the result depends on: the referenced classes, the
+   * super types of the helper classes and all of their super types. Helper classes are not
+   * included, they are the same for every class loader. Class loaders that load these classes from
+   * the same class files have the same result.
+   *
+   * @param loader Classloader to validate against (cannot be {@code null}, must pass "bootstrap
+   *     proxy" instead of bootstrap class loader)
+   * @return true if all references match the classpath of loader
+   */
+  public boolean matches(ClassLoader loader, Set<String> referencedClassNames) {
+    TypePool typePool = createTypePool(loader);
+    boolean matches = true;
+    for (ClassRef reference : references.values()) {
+      if (!checkMatch(reference, typePool, loader).isEmpty()) {
+        matches = false;
+        break;
+      }
+    }
+    // the referenced classes were already described by the type pool
+    Set<String> visited = new HashSet<>();
+    for (String className : references.keySet()) {
+      collectClassNames(className, typePool, visited, referencedClassNames);
+    }
+    return matches;
+  }
+
+  private void collectClassNames(
+      @Nullable String className,
+      TypePool typePool,
+      Set<String> visited,
+      Set<String> classNames) {
+    if (className == null || !visited.add(className)) {
+      return;
+    }
+    if (helperClassPredicate.isHelperClass(className)) {
+      ClassRef helperClass = references.get(className);
+      if (helperClass != null) {
+        collectClassNames(helperClass.getSuperClassName(), typePool, visited, classNames);
+        for (String interfaceName : helperClass.getInterfaceNames()) {
+          collectClassNames(interfaceName, typePool, visited, classNames);
+        }
+      }
+      return;
+    }
+
+    classNames.add(className);
+    TypePool.Resolution resolution = typePool.describe(className);
+    if (!resolution.isResolved()) {
+      return;
+    }
+    try {
+      TypeDescription type = resolution.resolve();
+      TypeDescription.Generic superClass = type.getSuperClass();
+      if (superClass != null) {
+        collectClassNames(superClass.asErasure().getName(), typePool, visited, classNames);
+      }
+      for (TypeDescription.Generic interfaceType : type.getInterfaces()) {
+        collectClassNames(interfaceType.asErasure().getName(), typePool, visited, classNames);
+      }
+    } catch (RuntimeException e) {
+      // a super type can't be resolved, its name was still collected
+    }
+  }
+
   // loader cannot be null, must pass "bootstrap proxy" instead of bootstrap class loader
   private static TypePool createTypePool(ClassLoader loader) {
     // ok to use locationStrategy() without fallback bootstrap proxy here since loader is non-null
@@ -348,6 +348,23 @@ class ReferenceMatcherTest extends Specification {
     "external" | "${TEST_EXTERNAL_INSTRUMENTATION_PACKAGE}.Helper"
   }
 
+  def "referenced class names include super types but not helper classes"() {
+    given:
+    def helper = ClassRef.builder("io.opentelemetry.instrumentation.Helper")
+      .setSuperClassName(DeclaredFieldTestClass.LibraryBaseClass.name)
+      .build()
+    def ref = ClassRef.builder(Nested.B.name).build()
+
+    when:
+    def classNames = new HashSet<String>()
+    def matches = createMatcher([(helper.className): helper, (ref.className): ref], [helper.className])
+      .matches(this.class.classLoader, classNames)
+
+    then:
+    matches
+    classNames == [Nested.B.name, DeclaredFieldTestClass.LibraryBaseClass.name, Object.name] as Set
+  }
+
   private static ReferenceMatcher createMatcher(Map<String, ClassRef> references = [:],
                                                 List<String> helperClasses = []) {
     new ReferenceMatcher(helperClasses, references, { it.startsWith(TEST_EXTERNAL_INSTRUMENTATION_PACKAGE) })